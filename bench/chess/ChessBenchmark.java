@@ -0,0 +1,166 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import boardgame.Piece;
+
+// Benchmarks JMH do gerador de jogadas e da partida. Ficam no pacote chess para medir testCheck e
+// testCheckMate, visiveis só no pacote. Cada benchmark retorna o resultado ou o entrega ao Blackhole,
+// para o JIT não eliminar o trabalho; os forks separam o perfil do JIT de um benchmark para o outro.
+// Uso: gradle jmh (ja com -prof gc, que mostra os bytes alocados por operação em gc.alloc.rate.norm)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+public class ChessBenchmark {
+
+	private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+	private static final String FOOLS_MATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+	private static final String[] OPENING = { "e2", "e4", "e7", "e5", "g1", "f3", "b8", "c6", "f1", "c4", "g8", "f6" };
+
+	private ChessMatch middleGame;
+	private ChessMatch mated;
+	private long[] snapshot;
+	private final int[] moves = new int[256];
+
+	@Setup
+	public void setup() {
+		middleGame = new ChessMatch(KIWIPETE);
+		mated = new ChessMatch(FOOLS_MATE);
+		snapshot = middleGame.snapshot();
+	}
+
+	// Peça branca de cada classe de chess.pieces, numa posição de meio-jogo; só os benchmarks de peça usam
+	@State(Scope.Thread)
+	public static class PieceState {
+
+		@Param({ "P", "N", "B", "R", "Q", "K" })
+		private String pieceType;
+
+		private ChessPiece piece;
+
+		@Setup
+		public void setup() {
+			piece = findPiece(new ChessMatch(KIWIPETE), pieceType, Color.WHITE);
+		}
+	}
+
+	@Benchmark
+	public boolean[][] possibleMoves(PieceState state) {
+		return state.piece.possibleMoves();
+	}
+
+	@Benchmark
+	public long possibleMovesBitboard(PieceState state) {
+		return state.piece.possibleMovesBitboard();
+	}
+
+	@Benchmark
+	public void generateMoves(Blackhole blackhole) {
+		blackhole.consume(middleGame.generateMoves(moves));
+		blackhole.consume(moves);
+	}
+
+	@Benchmark
+	public void legalMoves(Blackhole blackhole) {
+		blackhole.consume(middleGame.legalMoves(moves));
+		blackhole.consume(moves);
+	}
+
+	// Uma abertura de seis lances jogada pela API publica, a partir de uma partida nova
+	@Benchmark
+	public ChessMatch performChessMoveOpening() {
+		ChessMatch chessMatch = new ChessMatch();
+		for (int i = 0; i < OPENING.length; i += 2) {
+			chessMatch.performChessMove(position(OPENING[i]), position(OPENING[i + 1]));
+		}
+		return chessMatch;
+	}
+
+	@Benchmark
+	public ChessMatch newMatch() {
+		return new ChessMatch();
+	}
+
+	@Benchmark
+	public ChessMatch newMatchFromFen() {
+		return new ChessMatch(KIWIPETE);
+	}
+
+	@Benchmark
+	public String toFen() {
+		return middleGame.toFen();
+	}
+
+	@Benchmark
+	public boolean testCheck() {
+		return middleGame.testCheck(Color.WHITE);
+	}
+
+	@Benchmark
+	public boolean testCheckInCheck() {
+		return mated.testCheck(Color.WHITE);
+	}
+
+	@Benchmark
+	public boolean testCheckMate() {
+		return mated.testCheckMate(Color.WHITE);
+	}
+
+	// Copia da partida para outra thread: estado compacto e reconstrução
+	@Benchmark
+	public long[] snapshot() {
+		return middleGame.snapshot();
+	}
+
+	@Benchmark
+	public ChessMatch newMatchFromSnapshot() {
+		return new ChessMatch(snapshot);
+	}
+
+	@Benchmark
+	public ChessMatch copyMatch() {
+		return new ChessMatch(middleGame);
+	}
+
+	@Benchmark
+	public ChessPiece[][] getPieces() {
+		return middleGame.getPieces();
+	}
+
+	@Benchmark
+	public long perft2() {
+		return middleGame.perft(2);
+	}
+
+	private static ChessPosition position(String s) {
+		return ChessPosition.valueOf(s.charAt(0), s.charAt(1) - '0');
+	}
+
+	private static ChessPiece findPiece(ChessMatch chessMatch, String type, Color color) {
+		for (ChessPiece[] row : chessMatch.getPieces()) {
+			for (ChessPiece piece : row) {
+				if (piece != null && piece.getColor() == color && piece.toString().equals(type)
+						&& ((Piece) piece).isThereAnyPossibleMove()) {
+					return piece;
+				}
+			}
+		}
+		throw new IllegalStateException("No movable " + type + " for " + color);
+	}
+}
@@ -0,0 +1,56 @@
+package chess.engine;
+
+import java.util.Locale;
+
+import chess.ChessMatch;
+
+// Escalabilidade do ParallelSearch: tempo até a profundidade fixa e nós por segundo para 1..N threads,
+// sempre com tabela limpa. Speedup é o tempo de 1 thread dividido pelo tempo de N threads.
+// Uso: SmpBenchmark [profundidade] [threads maximas] [repetições]
+public class SmpBenchmark {
+
+	private static final String[] POSITIONS = {
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1" };
+
+	public static void main(String[] args) {
+		int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 7;
+		int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int repetitions = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+		TranspositionTable table = new TranspositionTable(64);
+
+		for (String fen : POSITIONS) { // Aquecimento do JIT, fora da medição
+			ParallelSearch search = new ParallelSearch(new ChessMatch(fen), table, 1);
+			search.setDepthLimit(depth - 1);
+			search.search();
+		}
+
+		System.out.printf(Locale.ROOT, "%-8s %12s %14s %12s %10s%n", "Threads", "ms", "nodes", "nps", "speedup");
+		double baseline = 0;
+		// 1, 2, 4... dobrando, e por ultimo o numero maximo de threads, mesmo que não seja potencia de 2
+		for (int threads = 1; threads <= maxThreads; threads = (threads == maxThreads) ? maxThreads + 1
+				: Math.min(threads * 2, maxThreads)) {
+			long totalMillis = 0;
+			long totalNodes = 0;
+			for (int r = 0; r < repetitions; r++) {
+				for (String fen : POSITIONS) {
+					table.clear();
+					ParallelSearch search = new ParallelSearch(new ChessMatch(fen), table, threads);
+					search.setDepthLimit(depth);
+					long start = System.nanoTime();
+					SearchResult result = search.search();
+					totalMillis += (System.nanoTime() - start) / 1_000_000;
+					totalNodes += result.getNodes();
+					search.shutdown();
+				}
+			}
+			double millis = (double) totalMillis / repetitions;
+			if (threads == 1) {
+				baseline = millis;
+			}
+			System.out.printf(Locale.ROOT, "%-8d %12.1f %14d %12d %10.2f%n", threads, millis, totalNodes / repetitions,
+					totalNodes * 1000 / Math.max(1, totalMillis), baseline / Math.max(1, millis));
+		}
+	}
+}
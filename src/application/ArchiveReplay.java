@@ -0,0 +1,110 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.archive.GameArchive;
+import chess.validation.GameValidator;
+
+public class ArchiveReplay {
+
+	// Uso: ArchiveReplay <arquivo> [--threads n] [--from n] [--to n]
+	// Reproduz as partidas [from, to) de um arquivo gravado por PgnReplay ou SelfPlay com --archive. A faixa é
+	// dividida em partes iguais do indice, uma por thread, todas lendo o mesmo arquivo mapeado.
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: ArchiveReplay <file> [--threads n] [--from n] [--to n]");
+			return;
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		long from = 0;
+		long to = -1;
+		for (int i = 1; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+			case "--threads":
+				threads = Integer.parseInt(args[i + 1]);
+				break;
+			case "--from":
+				from = Long.parseLong(args[i + 1]);
+				break;
+			case "--to":
+				to = Long.parseLong(args[i + 1]);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		try (GameArchive archive = GameArchive.open(Paths.get(args[0]))) {
+			long end = (to < 0) ? archive.size() : Math.min(to, archive.size());
+			long begin = Math.min(Math.max(0, from), end);
+			long start = System.nanoTime();
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			List<Future<long[]>> futures = new ArrayList<>(threads);
+			try {
+				long step = (end - begin + threads - 1) / threads;
+				for (long first = begin; first < end; first += step) {
+					long last = Math.min(end, first + step);
+					long rangeFirst = first;
+					futures.add(pool.submit(() -> replay(archive, rangeFirst, last)));
+				}
+				long plies = 0;
+				long invalid = 0;
+				for (Future<long[]> future : futures) {
+					long[] totals = join(future);
+					plies += totals[0];
+					invalid += totals[1];
+				}
+				double seconds = (System.nanoTime() - start) / 1e9;
+				long games = end - begin;
+				System.out.printf("%,d games (%,d invalid), %,d plies on %d thread(s) in %.2f s: %,.0f games/s, %,.0f plies/s%n",
+						games, invalid, plies, futures.size(), seconds, games / seconds, plies / seconds);
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	// Reproduz as partidas [first, last); retorna { meios-lances, partidas invalidas }
+	private static long[] replay(GameArchive archive, long first, long last) {
+		int[] moves = new int[GameArchive.MAX_PLIES];
+		long plies = 0;
+		long invalid = 0;
+		for (long n = first; n < last; n++) {
+			try {
+				ChessMatch chessMatch = archive.replay(n, moves);
+				plies += archive.getPlies(n);
+				try {
+					GameValidator.checkResult(chessMatch, archive.getResult(n));
+				} catch (ChessException e) {
+					throw new ChessException("Game " + n + ": " + e.getMessage());
+				}
+			} catch (ChessException e) {
+				invalid++;
+				synchronized (System.out) {
+					System.out.println(e.getMessage());
+				}
+			}
+		}
+		return new long[] { plies, invalid };
+	}
+
+	private static long[] join(Future<long[]> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while replaying games", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Replay failed", e.getCause());
+		}
+	}
+}
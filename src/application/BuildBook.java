@@ -0,0 +1,62 @@
+package application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import chess.ChessException;
+import chess.book.BookBuilder;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+
+public class BuildBook {
+
+	// Uso: BuildBook <arquivo.pgn> <livro> [--plies n] [--min-count n]
+	// Monta o livro de aberturas com os primeiros n meios-lances (20 por padrão) de cada partida valida; lances
+	// jogados menos de min-count vezes (padrão 1) ficam de fora. Partidas invalidas são informadas e ignoradas.
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: BuildBook <file.pgn> <book> [--plies n] [--min-count n]");
+			return;
+		}
+		int plies = 20;
+		int minCount = 1;
+		for (int i = 2; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+			case "--plies":
+				plies = Integer.parseInt(args[i + 1]);
+				break;
+			case "--min-count":
+				minCount = Integer.parseInt(args[i + 1]);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		BookBuilder builder = new BookBuilder(plies);
+		long invalid = 0;
+		long start = System.nanoTime();
+		try (InputStream input = Files.newInputStream(Paths.get(args[0])); PgnReader reader = new PgnReader(input)) {
+			int[] moves = new int[1024];
+			PgnGame game;
+			while ((game = reader.next()) != null) {
+				try {
+					if (game.getMoves().size() > moves.length) {
+						moves = new int[game.getMoves().size()];
+					}
+					game.replay(moves); // Valida a partida inteira antes de usar o começo
+					builder.add(game.getTag("FEN"), moves, game.getMoves().size(), game.getResult());
+				} catch (ChessException e) {
+					invalid++;
+					System.out.println("Game " + reader.getGamesRead() + " (ending at line " + reader.getLine() + "): "
+							+ e.getMessage());
+				}
+			}
+		}
+		long entries = builder.write(Paths.get(args[1]), minCount);
+		System.out.printf("%,d games (%,d invalid), %,d positions, %,d book entries in %.2f s%n", builder.getGames(),
+				invalid, builder.getPositions(), entries, (System.nanoTime() - start) / 1e9);
+	}
+}
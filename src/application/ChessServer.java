@@ -0,0 +1,37 @@
+package application;
+
+import java.io.IOException;
+
+import chess.server.GameServer;
+
+public class ChessServer {
+
+	// Uso: ChessServer [--port n] [--idle-minutes n] [--max-games n]
+	// Hospeda partidas para clientes no loopback (protocolo em GameServer); partidas sem comandos por
+	// idle-minutes (30 por padrão) são encerradas. Porta padrão 7878, ate 100.000 partidas.
+	public static void main(String[] args) throws IOException {
+		int port = 7878;
+		long idleMinutes = 30;
+		int maxGames = 100_000;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+			case "--port":
+				port = Integer.parseInt(args[i + 1]);
+				break;
+			case "--idle-minutes":
+				idleMinutes = Long.parseLong(args[i + 1]);
+				break;
+			case "--max-games":
+				maxGames = Integer.parseInt(args[i + 1]);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		try (GameServer server = new GameServer(port, idleMinutes * 60_000, maxGames)) {
+			System.out.println("Listening on 127.0.0.1:" + server.getPort());
+			server.serve();
+		}
+	}
+}
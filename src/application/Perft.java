@@ -0,0 +1,77 @@
+package application;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import chess.ChessMatch;
+
+public class Perft {
+
+	// Posições de referência (chessprogramming.org/Perft_Results) e o numero de folhas esperado por profundidade
+	private static final String[] FENS = {
+			"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", // Kiwipete: roque, en passant, promoção
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", // En passant com cravada horizontal
+			"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", // Promoções e roque sob ataque
+			"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+			"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10" };
+	private static final long[][] EXPECTED = {
+			{ 20, 400, 8902, 197281, 4865609 },
+			{ 48, 2039, 97862, 4085603 },
+			{ 14, 191, 2812, 43238, 674624 },
+			{ 6, 264, 9467, 422333 },
+			{ 44, 1486, 62379, 2103487 },
+			{ 46, 2079, 89890, 3894594 } };
+
+	// Uso: Perft                     -> suite completa, com nós por segundo
+	//      Perft <profundidade> [fen] -> divide da posição (inicial se o FEN for omitido)
+	public static void main(String[] args) {
+		if (args.length > 0) {
+			int depth = Integer.parseInt(args[0]);
+			ChessMatch chessMatch = (args.length > 1) ? new ChessMatch(String.join(" ", Arrays.copyOfRange(args, 1, args.length)))
+					: new ChessMatch();
+			divide(chessMatch, depth);
+			return;
+		}
+
+		long totalNodes = 0;
+		long totalTime = 0;
+		int failures = 0;
+		for (int i = 0; i < FENS.length; i++) {
+			System.out.println(FENS[i]);
+			for (int depth = 1; depth <= EXPECTED[i].length; depth++) {
+				ChessMatch chessMatch = new ChessMatch(FENS[i]);
+				long start = System.nanoTime();
+				long nodes = chessMatch.perft(depth);
+				long elapsed = System.nanoTime() - start;
+				boolean ok = nodes == EXPECTED[i][depth - 1];
+				if (!ok) {
+					failures++;
+				}
+				totalNodes += nodes;
+				totalTime += elapsed;
+				System.out.printf("  depth %d: %,12d nodes  %8.1f ms  %,12.0f nodes/s  %s%n", depth, nodes, elapsed / 1e6,
+						nodes * 1e9 / Math.max(elapsed, 1), ok ? "OK" : "FAIL (expected " + EXPECTED[i][depth - 1] + ")");
+			}
+		}
+		System.out.printf("Total: %,d nodes in %.1f ms, %,.0f nodes/s, %d failure(s)%n", totalNodes, totalTime / 1e6,
+				totalNodes * 1e9 / Math.max(totalTime, 1), failures);
+		if (failures > 0) {
+			System.exit(1);
+		}
+	}
+
+	private static void divide(ChessMatch chessMatch, int depth) {
+		long start = System.nanoTime();
+		Map<String, Long> result = chessMatch.divide(depth);
+		long elapsed = System.nanoTime() - start;
+		long total = 0;
+		for (Map.Entry<String, Long> entry : result.entrySet()) {
+			System.out.println(entry.getKey() + ": " + entry.getValue());
+			total += entry.getValue();
+		}
+		System.out.println();
+		System.out.printf("Moves: %d  Nodes: %,d  Time: %.1f ms  %,.0f nodes/s%n", result.size(), total, elapsed / 1e6,
+				total * 1e9 / Math.max(elapsed, 1));
+	}
+}
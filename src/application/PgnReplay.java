@@ -0,0 +1,90 @@
+package application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.archive.ArchiveWriter;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+import chess.pgn.PgnWriter;
+import chess.validation.GameValidator;
+
+public class PgnReplay {
+
+	// Uso: PgnReplay <arquivo.pgn> [--out arquivo.pgn] [--archive arquivo]
+	// Lê as partidas em fluxo, reproduz cada lance pela performChessMove e informa partidas por segundo.
+	// Com --out, regrava as partidas validas (SAN normalizado pelo leitor, comentarios removidos).
+	// Com --archive, grava as partidas validas no formato binario lido pelo ArchiveReplay.
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: PgnReplay <file.pgn> [--out file.pgn] [--archive file]");
+			return;
+		}
+		String out = null;
+		String archive = null;
+		for (int i = 1; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+			case "--out":
+				out = args[i + 1];
+				break;
+			case "--archive":
+				archive = args[i + 1];
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		long games = 0;
+		long plies = 0;
+		long invalid = 0;
+		long start = System.nanoTime();
+		try (InputStream input = Files.newInputStream(Paths.get(args[0]));
+				PgnReader reader = new PgnReader(input);
+				PgnWriter writer = (out == null) ? null
+						: new PgnWriter(new OutputStreamWriter(Files.newOutputStream(Paths.get(out)), StandardCharsets.UTF_8));
+				ArchiveWriter archiveWriter = (archive == null) ? null : new ArchiveWriter(Paths.get(archive))) {
+			int[] moves = new int[1024];
+			PgnGame game;
+			while ((game = reader.next()) != null) {
+				games++;
+				try {
+					if (game.getMoves().size() > moves.length) {
+						moves = new int[game.getMoves().size()];
+					}
+					ChessMatch chessMatch = game.replay(moves);
+					plies += game.getMoves().size();
+					GameValidator.checkResult(chessMatch, game.getResult());
+					if (writer != null) {
+						writer.write(game);
+					}
+					if (archiveWriter != null) {
+						if (game.getMoves().size() > ArchiveWriter.MAX_PLIES) {
+							throw new ChessException("Too many plies for the archive: " + game.getMoves().size());
+						}
+						archiveWriter.write(game.getTag("FEN"), moves, game.getMoves().size(), game.getResult());
+					}
+				} catch (ChessException e) {
+					invalid++;
+					System.out.println("Game " + games + " (ending at line " + reader.getLine() + "): " + e.getMessage());
+				}
+				if (games % 100_000 == 0) {
+					report(games, plies, invalid, start);
+				}
+			}
+		}
+		report(games, plies, invalid, start);
+	}
+
+	private static void report(long games, long plies, long invalid, long start) {
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%,d games (%,d invalid), %,d plies in %.2f s: %,.0f games/s, %,.0f plies/s%n", games, invalid,
+				plies, seconds, games / seconds, plies / seconds);
+	}
+}
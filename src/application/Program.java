@@ -1,28 +1,87 @@
 package application;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.SplittableRandom;
 
 import chess.ChessException;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.Color;
+import chess.Move;
+import chess.PieceType;
+import chess.book.OpeningBook;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
 
 public class Program {
 
-	public static void main(String[] args) {
+	// Uso: Program [--engine white|black] [--time ms] [--threads n] [--book arquivo]
+	//      (com --engine o computador joga com a cor informada; com --book, usa o livro de aberturas enquanto houver lance)
+	public static void main(String[] args) throws IOException {
 
 		Scanner sc = new Scanner(System.in);
 		ChessMatch chessMatch = new ChessMatch();
 		List<ChessPiece> captured = new ArrayList<>();
 
-		while (!chessMatch.getCheckMate()) { // Roda o programa enquanto não houver check mate
+		Color engineColor = null;
+		long engineTime = 3000;
+		int engineThreads = 1;
+		OpeningBook book = null;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("--engine")) {
+				engineColor = Color.valueOf(args[i + 1].toUpperCase());
+			} else if (args[i].equals("--time")) {
+				engineTime = Long.parseLong(args[i + 1]);
+			} else if (args[i].equals("--threads")) {
+				engineThreads = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--book")) {
+				book = OpeningBook.open(Paths.get(args[i + 1]));
+			}
+		}
+		ParallelSearch search = null;
+		if (engineColor != null) {
+			search = new ParallelSearch(chessMatch, new TranspositionTable(64), engineThreads);
+			search.setTimeLimit(engineTime);
+		}
+		SplittableRandom bookRandom = new SplittableRandom();
+		String lastEngineMove = null;
+
+		while (!chessMatch.getCheckMate() && !chessMatch.getDraw()) { // Roda o programa enquanto não houver check mate ou empate
 			try {
 				UI.clearScreen(); // Limpeza de interface
 				UI.printMatch(chessMatch, captured);
 				System.out.println();
+				if (lastEngineMove != null) {
+					System.out.println("Engine: " + lastEngineMove);
+				}
+
+				if (chessMatch.getCurrentPlayer() == engineColor) { // Vez do computador
+					int move = (book == null) ? Move.NONE : chessMatch.bookMove(book, bookRandom);
+					if (move != Move.NONE) {
+						lastEngineMove = Move.toString(move) + " (book)";
+					} else {
+						System.out.println("Thinking...");
+						SearchResult result = search.search();
+						move = result.getBestMove();
+						lastEngineMove = result.toString();
+					}
+					if (move == Move.NONE) { // Sem jogada legal (não deveria acontecer: afogamento ja encerra a partida)
+						break;
+					}
+					ChessPiece capturedPiece = chessMatch.performChessMove(move);
+					if (capturedPiece != null) {
+						captured.add(capturedPiece);
+					}
+					continue;
+				}
+
 				System.out.print("Source: ");
 				ChessPosition source = UI.readChessPosition(sc); // Local da peça
 
@@ -46,7 +105,7 @@ public class Program {
 						System.out.print("Invalid value! Enter piece for promotion (B/N/R/Q): ");
 						type = sc.nextLine().toUpperCase();
 					}
-					chessMatch.replacePromotedPiece(type);
+					chessMatch.replacePromotedPiece(PieceType.fromLetter(type.charAt(0)));
 				}
 			} catch (ChessException e) {
 				System.out.println(e.getMessage());
@@ -57,6 +116,12 @@ public class Program {
 			}
 		}
 		
+		if (search != null) {
+			search.shutdown();
+		}
+		if (book != null) {
+			book.close();
+		}
 		UI.clearScreen();
 		UI.printMatch(chessMatch, captured);
 
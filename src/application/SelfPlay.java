@@ -0,0 +1,232 @@
+package application;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.DrawReason;
+import chess.Move;
+import chess.archive.ArchiveWriter;
+import chess.book.OpeningBook;
+import chess.engine.MovePolicy;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnWriter;
+import chess.pgn.San;
+
+public class SelfPlay {
+
+	// Resultado de uma partida: vencedor (nulo em empate ou partida interrompida) e os lances jogados
+	private static class GameResult {
+		private Color winner;
+		private DrawReason drawReason;
+		private final List<String> moves = new ArrayList<>();
+		private int[] moveCodes = new int[128]; // Os mesmos lances no formato do Move, para o --archive
+		private final List<String> sanMoves = new ArrayList<>(); // Só preenchida quando há saida PGN
+
+		private String score() {
+			if (winner != null) {
+				return (winner == Color.WHITE) ? "1-0" : "0-1";
+			}
+			return (drawReason != null) ? "1/2-1/2" : "*";
+		}
+	}
+
+	// Uso: SelfPlay [--games n] [--threads n] [--white politica] [--black politica] [--seed n] [--max-plies n] [--out arquivo]
+	//               [--pgn arquivo] [--archive arquivo] [--fen posição] [--book arquivo]
+	//      politica: random, greedy ou search:<profundidade>; sem --fen as partidas começam da posição inicial
+	//      com --book, os dois lados jogam do livro de aberturas enquanto houver lance e depois seguem a politica
+	public static void main(String[] args) throws IOException {
+		int games = 100;
+		int threads = Runtime.getRuntime().availableProcessors();
+		String white = "greedy";
+		String black = "random";
+		long seed = 1;
+		int maxPlies = 600;
+		String out = null;
+		String fen = null;
+		String pgn = null;
+		String archive = null;
+		String bookFile = null;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+			case "--games":
+				games = Integer.parseInt(args[i + 1]);
+				break;
+			case "--threads":
+				threads = Integer.parseInt(args[i + 1]);
+				break;
+			case "--white":
+				white = args[i + 1];
+				break;
+			case "--black":
+				black = args[i + 1];
+				break;
+			case "--seed":
+				seed = Long.parseLong(args[i + 1]);
+				break;
+			case "--max-plies":
+				maxPlies = Integer.parseInt(args[i + 1]);
+				break;
+			case "--out":
+				out = args[i + 1];
+				break;
+			case "--pgn":
+				pgn = args[i + 1];
+				break;
+			case "--archive":
+				archive = args[i + 1];
+				break;
+			case "--book":
+				bookFile = args[i + 1];
+				break;
+			case "--fen":
+				fen = args[i + 1];
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		MovePolicy.parse(white, seed); // Valida as politicas antes de abrir o pool
+		MovePolicy.parse(black, seed);
+		if (fen != null) {
+			new ChessMatch(fen); // Valida o FEN uma vez, antes das partidas
+		}
+
+		OpeningBook book = (bookFile == null) ? null : OpeningBook.open(Paths.get(bookFile)); // Uma instancia para todas as threads
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<GameResult>> futures = new ArrayList<>(games);
+		long start = System.nanoTime();
+		for (int i = 0; i < games; i++) {
+			long gameSeed = seed * 1_000_003L + i; // Cada partida tem suas politicas e sua semente: resultado reprodutivel
+			String whiteSpec = white;
+			String blackSpec = black;
+			int plies = maxPlies;
+			String startFen = fen;
+			boolean san = pgn != null;
+			futures.add(pool.submit(() -> {
+				MovePolicy whitePolicy = MovePolicy.parse(whiteSpec, gameSeed);
+				MovePolicy blackPolicy = MovePolicy.parse(blackSpec, gameSeed ^ 0x9E3779B97F4A7C15L);
+				if (book != null) {
+					whitePolicy = MovePolicy.book(book, whitePolicy, gameSeed + 1);
+					blackPolicy = MovePolicy.book(book, blackPolicy, gameSeed + 2);
+				}
+				return playGame((startFen == null) ? new ChessMatch() : new ChessMatch(startFen), whitePolicy, blackPolicy,
+						plies, san);
+			}));
+		}
+
+		int whiteWins = 0;
+		int blackWins = 0;
+		int unfinished = 0;
+		long totalPlies = 0;
+		Map<DrawReason, Integer> draws = new EnumMap<>(DrawReason.class);
+		try (BufferedWriter writer = (out == null) ? null : Files.newBufferedWriter(Paths.get(out));
+				PgnWriter pgnWriter = (pgn == null) ? null : new PgnWriter(Files.newBufferedWriter(Paths.get(pgn)));
+				ArchiveWriter archiveWriter = (archive == null) ? null : new ArchiveWriter(Paths.get(archive))) {
+			int round = 0;
+			for (Future<GameResult> future : futures) { // Na ordem das partidas, para a saida ser deterministica
+				GameResult result = join(future);
+				round++;
+				totalPlies += result.moves.size();
+				if (result.winner == Color.WHITE) {
+					whiteWins++;
+				} else if (result.winner == Color.BLACK) {
+					blackWins++;
+				} else if (result.drawReason != null) {
+					draws.merge(result.drawReason, 1, Integer::sum);
+				} else {
+					unfinished++;
+				}
+				if (writer != null) {
+					writer.write(result.score());
+					for (String move : result.moves) {
+						writer.write(' ');
+						writer.write(move);
+					}
+					writer.newLine();
+				}
+				if (pgnWriter != null) {
+					PgnGame game = new PgnGame();
+					game.setTag("Event", "SelfPlay");
+					game.setTag("Round", String.valueOf(round));
+					game.setTag("White", white);
+					game.setTag("Black", black);
+					game.setTag("Result", result.score());
+					if (fen != null) {
+						game.setTag("SetUp", "1");
+						game.setTag("FEN", fen);
+					}
+					result.sanMoves.forEach(game::addMove);
+					game.setResult(result.score());
+					pgnWriter.write(game);
+				}
+				if (archiveWriter != null) {
+					archiveWriter.write(fen, result.moveCodes, result.moves.size(), result.score());
+				}
+			}
+		} finally {
+			pool.shutdown();
+			if (book != null) {
+				book.close();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%d games (%s vs %s) on %d thread(s) in %.2f s%n", games, white, black, threads, seconds);
+		System.out.printf("White wins: %d  Black wins: %d  Draws: %d %s  Unfinished: %d%n", whiteWins, blackWins,
+				draws.values().stream().mapToInt(Integer::intValue).sum(), draws, unfinished);
+		System.out.printf("%.1f games/s, %,.0f plies/s, %.1f plies/game%n", games / seconds, totalPlies / seconds,
+				(double) totalPlies / Math.max(1, games));
+	}
+
+	// Partida completa pela API publica da ChessMatch, sem nenhuma entrada ou saida de console
+	private static GameResult playGame(ChessMatch chessMatch, MovePolicy white, MovePolicy black, int maxPlies,
+			boolean san) {
+		GameResult result = new GameResult();
+		while (!chessMatch.getCheckMate() && !chessMatch.getDraw() && result.moves.size() < maxPlies) {
+			MovePolicy policy = (chessMatch.getCurrentPlayer() == Color.WHITE) ? white : black;
+			int move = policy.chooseMove(chessMatch);
+			if (move == Move.NONE) {
+				break;
+			}
+			if (result.moves.size() == result.moveCodes.length) {
+				result.moveCodes = Arrays.copyOf(result.moveCodes, result.moveCodes.length * 2);
+			}
+			result.moveCodes[result.moves.size()] = move;
+			result.moves.add(Move.toString(move));
+			if (san) {
+				result.sanMoves.add(San.toSan(chessMatch, move));
+			}
+			chessMatch.performChessMove(move);
+		}
+		if (chessMatch.getCheckMate()) {
+			result.winner = chessMatch.getCurrentPlayer(); // No checkMate a vez não passa: o jogador da vez é o vencedor
+		}
+		result.drawReason = chessMatch.getDrawReason();
+		return result;
+	}
+
+	private static GameResult join(Future<GameResult> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for games", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Game failed", e.getCause());
+		}
+	}
+}
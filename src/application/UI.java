@@ -43,7 +43,7 @@ public class UI {
 			String s = sc.nextLine();
 			char column = s.charAt(0);
 			int row = Integer.parseInt(s.substring(1));
-			return new ChessPosition(column, row);
+			return ChessPosition.valueOf(column, row);
 		} catch (RuntimeException e) {
 			throw new InputMismatchException("Error reading ChessPosition.");
 		}
@@ -55,7 +55,9 @@ public class UI {
 		printCapturedPieces(captured);
 		System.out.println();
 		System.out.println("Turn: " + chessMatch.getTurn());
-		if (!chessMatch.getCheckMate()) {
+		if (chessMatch.getDraw()) {
+			System.out.println("DRAW! (" + chessMatch.getDrawReason() + ")");
+		} else if (!chessMatch.getCheckMate()) {
 			System.out.println("Waiting player: " + chessMatch.getCurrentPlayer());
 			if (chessMatch.getCheck()) {
 				System.out.println("CHECK!");
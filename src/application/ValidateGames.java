@@ -0,0 +1,72 @@
+package application;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+import chess.archive.GameArchive;
+import chess.validation.GameValidator;
+import chess.validation.ValidationResult;
+
+public class ValidateGames {
+
+	// Uso: ValidateGames <arquivo> [--threads n] [--chunk n] [--quiet]
+	// Valida um arquivo .pgn, ou um arquivo binario gravado com --archive, em blocos de n partidas (1000 por
+	// padrão) num ForkJoinPool. Mostra as partidas invalidas e a vazão de cada bloco; com --quiet, só o total.
+	// As partidas são numeradas a partir de 0, nos dois formatos.
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: ValidateGames <file> [--threads n] [--chunk n] [--quiet]");
+			return;
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		int chunkSize = 1000;
+		boolean quiet = false;
+		for (int i = 1; i < args.length; i++) {
+			switch (args[i]) {
+			case "--threads":
+				threads = Integer.parseInt(args[++i]);
+				break;
+			case "--chunk":
+				chunkSize = Integer.parseInt(args[++i]);
+				break;
+			case "--quiet":
+				quiet = true;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		Path path = Paths.get(args[0]);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			GameValidator validator = new GameValidator(pool, chunkSize);
+			boolean verbose = !quiet;
+			validator.setChunkListener(chunk -> {
+				chunk.getErrors().forEach(System.out::println);
+				if (verbose) {
+					System.out.printf("Chunk %d (games %d-%d): %s%n", chunk.getChunk(), chunk.getFirstGame(),
+							chunk.getFirstGame() + chunk.getGames() - 1, chunk);
+				}
+			});
+			ValidationResult total;
+			if (path.getFileName().toString().toLowerCase().endsWith(".pgn")) {
+				try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+					total = validator.validate(reader);
+				}
+			} else {
+				try (GameArchive archive = GameArchive.open(path)) {
+					total = validator.validate(archive);
+				}
+			}
+			System.out.printf("Total on %d thread(s): %s%n", threads, total);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
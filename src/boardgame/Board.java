@@ -4,7 +4,7 @@ public class Board {
 
 	private int rows;
 	private int columns;
-	private Piece[][] pieces;
+	private Piece[] pieces; // Matriz guardada linha a linha num unico vetor: indice = linha * colunas + coluna
 
 	public Board(int rows, int columns) { // Verificando se o tabuleiro tem linhas e colunas menores do que um.
 		if (rows < 1 || columns < 1) {
@@ -12,7 +12,7 @@ public class Board {
 		}
 		this.rows = rows;
 		this.columns = columns;
-		pieces = new Piece[rows][columns];
+		pieces = new Piece[rows * columns];
 	}
 
 	public int getRows() {
@@ -23,27 +23,55 @@ public class Board {
 		return columns;
 	}
 
+	public int index(Position position) { // Indice da posição no vetor de peças
+		return position.getRow() * columns + position.getColumn();
+	}
+
+	public Position position(int index) {
+		return new Position(index / columns, index % columns);
+	}
+
 	//Mudando peça de local
 	public Piece piece(int row, int column) {
 		if (!positionExists(row, column)) {
 			throw new BoardException("Position not on the board");
 		}
-		return pieces[row][column];
+		return pieces[row * columns + column];
 	}
 
 	public Piece piece(Position position) {
 		if (!positionExists(position)) {
 			throw new BoardException("Position not on the board");
 		}
-		return pieces[position.getRow()][position.getColumn()];
+		return pieces[index(position)];
 	}
-	
+
+	public Piece piece(int index) {
+		if (!positionExists(index)) {
+			throw new BoardException("Position not on the board");
+		}
+		return pieces[index];
+	}
+
 	public void placePiece(Piece piece, Position position) {
-		if (thereIsAPiece(position)) {
-			throw new BoardException("There is already a piece on position: " + position);
+		if (!positionExists(position)) {
+			throw new BoardException("Position not on the board");
 		}
-		pieces[position.getRow()][position.getColumn()] = piece;
-		piece.position = position;
+		placePiece(piece, index(position));
+	}
+
+	public void placePiece(Piece piece, int index) {
+		if (thereIsAPiece(index)) {
+			throw new BoardException("There is already a piece on position: " + position(index));
+		}
+		pieces[index] = piece;
+		piece.index = index;
+	}
+
+	// Coloca sem validar: para subclasses que ja conhecem a ocupação, como na copia de um tabuleiro
+	protected void setPiece(Piece piece, int index) {
+		pieces[index] = piece;
+		piece.index = index;
 	}
 
 	// Verificando se existe a posição no tabuleiro
@@ -55,12 +83,20 @@ public class Board {
 		return positionExists(position.getRow(), position.getColumn());
 	}
 
+	public boolean positionExists(int index) {
+		return index >= 0 && index < pieces.length;
+	}
+
 	// verificando se existe uma peça
 	public boolean thereIsAPiece(Position position) {
 		if (!positionExists(position)) {
 			throw new BoardException("Position not on the board");
 		}
-		return piece(position) != null;
+		return thereIsAPiece(index(position));
+	}
+
+	public boolean thereIsAPiece(int index) {
+		return piece(index) != null;
 	}
 
 	// removendo peça do local
@@ -68,12 +104,16 @@ public class Board {
 		if (!positionExists(position)) {
 			throw new BoardException("Position not on the board");
 		}
-		if (piece(position) == null) {
+		return removePiece(index(position));
+	}
+
+	public Piece removePiece(int index) {
+		Piece aux = piece(index);
+		if (aux == null) {
 			return null;
 		}
-		Piece aux = piece(position);
-		aux.position = null;
-		pieces[position.getRow()][position.getColumn()] = null;
+		aux.index = -1;
+		pieces[index] = null;
 		return aux;
 	}
-}
\ No newline at end of file
+}
@@ -2,18 +2,25 @@ package boardgame;
 
 public abstract class Piece {
 
-	protected Position position;
+	int index = -1; // Indice da casa no Board (linha * colunas + coluna), -1 fora do tabuleiro
 	private Board board;
 
 	public Piece(Board board) {
 		this.board = board;
-		position = null;
 	}
 
 	protected Board getBoard() {
 		return board;
 	}
 
+	protected int getIndex() {
+		return index;
+	}
+
+	protected Position getPosition() { // Nulo fora do tabuleiro
+		return (index < 0) ? null : board.position(index);
+	}
+
 	public abstract boolean[][] possibleMoves();
 
 	public boolean possibleMove(Position position) {
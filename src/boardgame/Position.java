@@ -1,12 +1,11 @@
 package boardgame;
 
-public class Position {
+public class Position { // Imutavel: pode ser guardada e compartilhada sem copia
 
-	private int row;
-	private int column;
+	private final int row;
+	private final int column;
 	
 	public Position(int row, int column) {
-		super();
 		this.row = row;
 		this.column = column;
 	}
@@ -15,21 +14,22 @@ public class Position {
 		return row;
 	}
 
-	public void setRow(int row) {
-		this.row = row;
-	}
-
 	public int getColumn() {
 		return column;
 	}
 
-	public void setColumn(int column) {
-		this.column = column;
-	}	
-	
-	public void setValues(int row, int column) {
-		this.row = row;
-		this.column = column;
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Position)) {
+			return false;
+		}
+		Position other = (Position) obj;
+		return row == other.row && column == other.column;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * row + column;
 	}
 	
 	@Override
@@ -0,0 +1,188 @@
+package chess;
+
+public final class Attacks {
+
+	// Tabelas de ataque das peças deslizantes (torre e bispo) por magic bitboards.
+	// As magics foram encontradas por busca aleatoria para a numeração de casas do ChessBoard
+	// (linha * 8 + coluna); as tabelas são preenchidas uma vez no carregamento da classe.
+	private static final int[][] ROOK_DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+	private static final int[][] BISHOP_DIRECTIONS = { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+
+	private static final long[] ROOK_MASKS = new long[64];
+	private static final long[] ROOK_MAGICS = {
+			0x008008816090C000L, 0x0040200040001000L, 0x1200084200208010L, 0x0880100008000580L,
+			0x0100040800100300L, 0x4A00143810020001L, 0x0C00100221408408L, 0x0100008026114100L,
+			0x0224800432400080L, 0xC046002041020080L, 0x8000801000802000L, 0x0089001000092100L,
+			0x4008800400080081L, 0xC062001008040200L, 0x0412000200080481L, 0x0041000062048500L,
+			0x0002A88009400082L, 0x8040028020028240L, 0x0011130020004100L, 0x0010010008250011L,
+			0x0000050008010011L, 0x418C004002010040L, 0x0000440002104108L, 0x0100460001440181L,
+			0x4120400080002088L, 0x0280500140002001L, 0x0030401100200100L, 0x1800100080080080L,
+			0x010A041100080100L, 0x0800040080800200L, 0x0020908400221811L, 0x4052A2C20008810CL,
+			0x0080002010400040L, 0x0020201000404000L, 0x0010040800202000L, 0x1001001001000820L,
+			0x0000040080800800L, 0x0201000401000208L, 0x4080823014000118L, 0x0080004092002104L,
+			0x80846A8140008000L, 0x0010012001414001L, 0x0001002001430011L, 0x0180220010420008L,
+			0x0080040008008080L, 0x0001000400030008L, 0x8A02500882240001L, 0x0006084910820004L,
+			0x4040208001005900L, 0x0040201000400040L, 0x0681422008B10100L, 0x0122800800100480L,
+			0x0001004498003100L, 0x0140D0202C401801L, 0x0009004422002100L, 0x0050240048810200L,
+			0x8001004420108202L, 0x013B400080112101L, 0x0001009120008841L, 0x0444200804100101L,
+			0x0406002004081002L, 0x0A0200300F0C0842L, 0x7002000408008102L, 0x8C00040180205702L };
+	private static final int[] ROOK_SHIFTS = new int[64];
+	private static final long[][] ROOK_TABLE = new long[64][];
+
+
+	private static final long[] BISHOP_MASKS = new long[64];
+	private static final long[] BISHOP_MAGICS = {
+			0x2010100101002200L, 0x0002248102020280L, 0x0048A28408810082L, 0x811805A100420800L,
+			0x0282021001000024L, 0x00020110080C0085L, 0x08A10808020A0800L, 0x0040202404044020L,
+			0x0001A4190A040C00L, 0x000C020818309C80L, 0x0031102430544084L, 0x0000082040428010L,
+			0x0800042C200860C0L, 0x0025110420040400L, 0x8C00020110488440L, 0xA000008601116044L,
+			0x0060001085090824L, 0x0082822004010200L, 0x0110000800414C88L, 0x3004014804101114L,
+			0x80C4020200940900L, 0x0022000100820101L, 0x1402000422020200L, 0x1800440086080102L,
+			0x0024908020021086L, 0x0804020204100410L, 0x4008080004002021L, 0xC03C0040A4010022L,
+			0x1901010040104001L, 0x000800808CC06000L, 0x10011044040C0410L, 0x008400201100AA20L,
+			0x20101011008A0200L, 0x0180840428101000L, 0x0044024100082201L, 0x0000A00800510810L,
+			0x0004004012040100L, 0x8020090040020806L, 0x002801040209089CL, 0x081A060820020084L,
+			0x0002102424502000L, 0x240101211002200CL, 0x0401008050000100L, 0x8800812011040800L,
+			0x1204488100400402L, 0x0084090442040100L, 0x4402100C01290091L, 0x00501200A9010021L,
+			0x0090491009600208L, 0x4002008C210800A0L, 0x40080100A090228AL, 0x0004808104880040L,
+			0x00000020A0444000L, 0x8840410408008000L, 0x1AC0040420820800L, 0x1010240545C20000L,
+			0x0008420084200200L, 0x2425090042108482L, 0x00000001008A410AL, 0x0009010802411080L,
+			0x00108000100A0620L, 0x4000111220010907L, 0x8120842008025084L, 0x09A401104C010040L };
+	private static final int[] BISHOP_SHIFTS = new int[64];
+	private static final long[][] BISHOP_TABLE = new long[64][];
+
+	// Tabelas das peças que saltam (cavalo, rei e captura de peão), indexadas pela casa de origem
+	private static final int[][] KNIGHT_JUMPS = { { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 }, { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 } };
+	private static final int[][] KING_STEPS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+
+	private static final long[] KNIGHT_ATTACKS = new long[64];
+	private static final long[] KING_ATTACKS = new long[64];
+	private static final long[][] PAWN_ATTACKS = new long[2][64]; // [Color.ordinal()][casa]
+
+	private static final long[][] BETWEEN = new long[64][64]; // Casas estritamente entre duas casas alinhadas
+	private static final long[][] LINE = new long[64][64]; // Linha inteira (de borda a borda) por duas casas alinhadas
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_JUMPS);
+			KING_ATTACKS[square] = stepAttacks(square, KING_STEPS);
+			PAWN_ATTACKS[Color.WHITE.ordinal()][square] = stepAttacks(square, new int[][] { { -1, -1 }, { -1, 1 } });
+			PAWN_ATTACKS[Color.BLACK.ordinal()][square] = stepAttacks(square, new int[][] { { 1, -1 }, { 1, 1 } });
+			initSquare(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS[square], ROOK_SHIFTS, ROOK_TABLE);
+			initSquare(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS[square], BISHOP_SHIFTS, BISHOP_TABLE);
+		}
+		for (int a = 0; a < 64; a++) {
+			for (int b = 0; b < 64; b++) {
+				long bitA = 1L << a;
+				long bitB = 1L << b;
+				if ((rookAttacks(a, 0) & bitB) != 0) {
+					BETWEEN[a][b] = rookAttacks(a, bitB) & rookAttacks(b, bitA);
+					LINE[a][b] = (rookAttacks(a, 0) & rookAttacks(b, 0)) | bitA | bitB;
+				} else if ((bishopAttacks(a, 0) & bitB) != 0) {
+					BETWEEN[a][b] = bishopAttacks(a, bitB) & bishopAttacks(b, bitA);
+					LINE[a][b] = (bishopAttacks(a, 0) & bishopAttacks(b, 0)) | bitA | bitB;
+				}
+			}
+		}
+	}
+
+	private Attacks() {
+	}
+
+	public static long knightAttacks(int square) {
+		return KNIGHT_ATTACKS[square];
+	}
+
+	public static long kingAttacks(int square) {
+		return KING_ATTACKS[square];
+	}
+
+	public static long pawnAttacks(Color color, int square) { // Casas atacadas por um peão da cor informada
+		return PAWN_ATTACKS[color.ordinal()][square];
+	}
+
+	public static long rookAttacks(int square, long occupied) {
+		return ROOK_TABLE[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	public static long bishopAttacks(int square, long occupied) {
+		return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	public static long queenAttacks(int square, long occupied) {
+		return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+	}
+
+	public static long between(int a, int b) {
+		return BETWEEN[a][b];
+	}
+
+	public static long line(int a, int b) { // Zero se as casas não estão alinhadas
+		return LINE[a][b];
+	}
+
+	private static void initSquare(int square, int[][] directions, long[] masks, long magic, int[] shifts,
+			long[][] table) {
+		long mask = relevantMask(square, directions);
+		int bits = Long.bitCount(mask);
+		masks[square] = mask;
+		shifts[square] = 64 - bits;
+		table[square] = new long[1 << bits];
+
+		// Enumerando todos os subconjuntos da mascara (Carry-Rippler) e gravando o ataque de cada um
+		long subset = 0;
+		do {
+			int index = (int) ((subset * magic) >>> (64 - bits));
+			table[square][index] = slidingAttacks(square, subset, directions);
+			subset = (subset - mask) & mask;
+		} while (subset != 0);
+	}
+
+	private static long stepAttacks(int square, int[][] steps) {
+		long attacks = 0;
+		for (int[] d : steps) {
+			int r = square / 8 + d[0];
+			int c = square % 8 + d[1];
+			if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+				attacks |= 1L << ChessBoard.square(r, c);
+			}
+		}
+		return attacks;
+	}
+
+	private static long relevantMask(int square, int[][] directions) { // Casas que podem bloquear, sem as bordas
+		long mask = 0;
+		int row = square / 8;
+		int column = square % 8;
+		for (int[] d : directions) {
+			int r = row + d[0];
+			int c = column + d[1];
+			while (r + d[0] >= 0 && r + d[0] < 8 && c + d[1] >= 0 && c + d[1] < 8) {
+				mask |= 1L << ChessBoard.square(r, c);
+				r += d[0];
+				c += d[1];
+			}
+		}
+		return mask;
+	}
+
+	private static long slidingAttacks(int square, long occupied, int[][] directions) { // Percorre os raios (lento, so na inicialização)
+		long attacks = 0;
+		int row = square / 8;
+		int column = square % 8;
+		for (int[] d : directions) {
+			int r = row + d[0];
+			int c = column + d[1];
+			while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+				long bit = 1L << ChessBoard.square(r, c);
+				attacks |= bit;
+				if ((occupied & bit) != 0) {
+					break;
+				}
+				r += d[0];
+				c += d[1];
+			}
+		}
+		return attacks;
+	}
+}
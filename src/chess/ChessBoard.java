@@ -0,0 +1,160 @@
+package chess;
+
+import boardgame.Board;
+import boardgame.BoardException;
+import boardgame.Piece;
+import boardgame.Position;
+
+public class ChessBoard extends Board {
+
+	// Tipos de peça, usados como indice dos bitboards (iguais ao ordinal() do PieceType)
+	public static final int PAWN = 0;
+	public static final int KNIGHT = 1;
+	public static final int BISHOP = 2;
+	public static final int ROOK = 3;
+	public static final int QUEEN = 4;
+	public static final int KING = 5;
+
+	// Um long por tipo de peça e por cor. Casa = linha * 8 + coluna (a8 = 0, h1 = 63)
+	private long[] typeBitboards = new long[6];
+	private long[] colorBitboards = new long[2];
+	private long occupied;
+	private long hash; // Zobrist das peças, atualizado junto com os bitboards
+
+	public ChessBoard() {
+		super(8, 8);
+	}
+
+	// Tabuleiro com os bitboards e o hash de outro, mas sem peças: cada partida tem as suas, colocadas com copyPiece
+	ChessBoard(ChessBoard other) {
+		super(8, 8);
+		System.arraycopy(other.typeBitboards, 0, typeBitboards, 0, typeBitboards.length);
+		System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, colorBitboards.length);
+		occupied = other.occupied;
+		hash = other.hash;
+	}
+
+	public static int square(int row, int column) {
+		return row * 8 + column;
+	}
+
+	public static int square(Position position) {
+		return square(position.getRow(), position.getColumn());
+	}
+
+	public static int type(Piece piece) { // Indice do bitboard do tipo da peça
+		return ((ChessPiece) piece).getType().ordinal();
+	}
+
+	@Override
+	public ChessPiece piece(int square) {
+		return (ChessPiece) super.piece(square);
+	}
+
+	public long getHash() {
+		return hash;
+	}
+
+	public long getOccupied() {
+		return occupied;
+	}
+
+	public long getPieces(Color color) {
+		return colorBitboards[color.ordinal()];
+	}
+
+	public long getPieces(int type) {
+		return typeBitboards[type];
+	}
+
+	public long getPieces(int type, Color color) {
+		return typeBitboards[type] & colorBitboards[color.ordinal()];
+	}
+
+	public int typeAt(int square) { // Tipo da peça na casa, ou -1 se estiver vazia
+		long bit = 1L << square;
+		if ((occupied & bit) == 0) {
+			return -1;
+		}
+		int type = PAWN;
+		while ((typeBitboards[type] & bit) == 0) {
+			type++;
+		}
+		return type;
+	}
+
+	// Peças da cor informada que atacam a casa. Parte da propria casa com os padrões de ataque
+	// invertidos: um cavalo na casa "enxerga" os cavalos que a atacam, e assim por diante.
+	public long attackersTo(int square, Color attacker, long occupied) {
+		Color defender = (attacker == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		long diagonalSliders = typeBitboards[BISHOP] | typeBitboards[QUEEN];
+		long straightSliders = typeBitboards[ROOK] | typeBitboards[QUEEN];
+		return colorBitboards[attacker.ordinal()]
+				& ((Attacks.pawnAttacks(defender, square) & typeBitboards[PAWN])
+				| (Attacks.knightAttacks(square) & typeBitboards[KNIGHT])
+				| (Attacks.kingAttacks(square) & typeBitboards[KING])
+				| (Attacks.bishopAttacks(square, occupied) & diagonalSliders)
+				| (Attacks.rookAttacks(square, occupied) & straightSliders));
+	}
+
+	public boolean isSquareAttacked(int square, Color attacker) {
+		return attackersTo(square, attacker, occupied) != 0;
+	}
+
+	// Peças da cor do rei que estão cravadas: são a unica peça entre o rei e uma peça deslizante adversaria
+	public long pinnedPieces(int kingSquare, Color color) {
+		Color opponent = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		long snipers = ((Attacks.rookAttacks(kingSquare, 0) & (typeBitboards[ROOK] | typeBitboards[QUEEN]))
+				| (Attacks.bishopAttacks(kingSquare, 0) & (typeBitboards[BISHOP] | typeBitboards[QUEEN])))
+				& colorBitboards[opponent.ordinal()];
+		long pinned = 0;
+		while (snipers != 0) {
+			long blockers = Attacks.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupied;
+			if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+				pinned |= blockers & colorBitboards[color.ordinal()];
+			}
+			snipers &= snipers - 1;
+		}
+		return pinned;
+	}
+
+	@Override
+	public void placePiece(Piece piece, int square) { // As versões com Position do Board chegam aqui
+		super.placePiece(piece, square);
+		long bit = 1L << square;
+		Color color = ((ChessPiece) piece).getColor();
+		int type = type(piece);
+		occupied |= bit;
+		colorBitboards[color.ordinal()] |= bit;
+		typeBitboards[type] |= bit;
+		hash ^= Zobrist.piece(color, type, square);
+	}
+
+	void copyPiece(ChessPiece piece, int square) { // Os bitboards e o hash ja contam com a peça
+		setPiece(piece, square);
+	}
+
+	@Override
+	public Piece removePiece(int square) {
+		Piece aux = super.removePiece(square);
+		if (aux != null) {
+			long bit = ~(1L << square);
+			Color color = ((ChessPiece) aux).getColor();
+			int type = type(aux);
+			occupied &= bit;
+			colorBitboards[color.ordinal()] &= bit;
+			typeBitboards[type] &= bit;
+			hash ^= Zobrist.piece(color, type, square);
+		}
+		return aux;
+	}
+
+	// Consulta de ocupação direto no bitboard, sem passar pela matriz
+	@Override
+	public boolean thereIsAPiece(int square) {
+		if (!positionExists(square)) {
+			throw new BoardException("Position not on the board");
+		}
+		return (occupied & (1L << square)) != 0;
+	}
+}
@@ -1,12 +1,15 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+import java.util.regex.Pattern;
 
-import boardgame.Board;
 import boardgame.Piece;
-import boardgame.Position;
+import chess.book.OpeningBook;
 import chess.pieces.Bishop;
 import chess.pieces.King;
 import chess.pieces.Knight;
@@ -18,21 +21,182 @@ public class ChessMatch {
 
 	private int turn;
 	private Color currentPlayer;
-	private Board board;
+	private ChessBoard board;
 	private boolean check;
 	private boolean checkMate;
 	private ChessPiece enPassantVulnerable;
 	private ChessPiece promoted;
+	private long checkers; // Peças que dão check no rei do jogador da vez
+	private long pinned; // Peças do jogador da vez cravadas no proprio rei
 
-	private List<Piece> piecesOnTheBoard = new ArrayList<>();
+	// Zobrist: as peças ficam no hash do ChessBoard; aqui ficam vez, direitos de roque e en passant
+	private long hash;
+	private int castlingRights; // 1 = roque pequeno branco, 2 = grande branco, 4 = pequeno preto, 8 = grande preto
+	private int enPassantColumn = -1;
+
+	private int halfmoveClock; // Meios-lances desde a ultima captura ou jogada de peão (regra dos 50 lances)
+	private DrawReason drawReason; // Nulo enquanto a partida não terminou empatada
+
+	// Hash de cada posição da partida, da inicial até a atual, para detectar repetição
+	private long[] hashHistory = new long[16];
+	private int historyCount;
+
+	private int[] kingSquares = new int[2]; // Casa do rei de cada cor, indexada por Color.ordinal()
+
+	private PieceList piecesOnTheBoard = new PieceList();
 	private List<Piece> capturedPieces = new ArrayList<>();
 
+	private int[] moveBuffer; // Buffer reaproveitado pela validação de jogadas e teste de checkmate, alocado no primeiro uso
+
+	// Pilha de desfazer, um registro por jogada: as da partida (performChessMove) e, por cima delas, as das
+	// buscas (makeMove(int)). Começa nos vetores vazios compartilhados e cresce no primeiro lance, para copias
+	// da partida sairem baratas.
+	private int ply;
+	private int[] plyMoves = NO_INTS;
+	private Piece[] plyCaptured = NO_PIECES;
+	private ChessPiece[] plyEnPassant = NO_CHESS_PIECES;
+	private ChessPiece[] plyPromotedPawn = NO_CHESS_PIECES;
+	private ChessPiece[] plyPromoted = NO_CHESS_PIECES; // Peça promovida (getPromoted()) antes da jogada
+	private long[] plyCheckers = NO_LONGS;
+	private long[] plyPinned = NO_LONGS;
+	private long[] plyHash = NO_LONGS;
+	// Bits: 0-3 roque, 4-7 coluna de en passant + 1, 8-10 empate + 1 e 11 checkMate anteriores,
+	// 12 vez mantida (a jogada deu checkMate, ver finishMove), 13 em diante meios-lances anteriores
+	private int[] plyState = NO_INTS;
+	private static final int PLY_TURN_KEPT = 1 << 12;
+
+	// Jogadas desfeitas por unmakeMove(), a mais recente no topo: lance, resultado (checkMate e empate) e hash
+	// da posição de onde o lance sai. Um novo lance da partida descarta a pilha.
+	private int redoCount;
+	private int[] redoMoves = NO_INTS;
+	private int[] redoResults = NO_INTS;
+	private long[] redoHashes = NO_LONGS;
+
+	// Vetores vazios das pilhas: nunca são escritos (a pilha cresce com Arrays.copyOf), então todas as partidas usam os mesmos
+	private static final int[] NO_INTS = {};
+	private static final long[] NO_LONGS = {};
+	private static final Piece[] NO_PIECES = {};
+	private static final ChessPiece[] NO_CHESS_PIECES = {};
+
+	// Estado compacto da partida (ver snapshot()): indices no long[]
+	private static final int SNAPSHOT_MOVED = 4; // 0 a 3: codigo da peça de cada casa, 4 bits por casa
+	private static final int SNAPSHOT_CHECKERS = 5;
+	private static final int SNAPSHOT_PINNED = 6;
+	private static final int SNAPSHOT_HASH = 7;
+	private static final int SNAPSHOT_STATE = 8;
+	private static final int SNAPSHOT_CAPTURED = 9;
+	private static final int SNAPSHOT_LENGTH = 10;
+	private static final Color[] COLORS = Color.values(); // Cor pelo ordinal guardado no estado compacto
+	private static final DrawReason[] DRAW_REASONS = DrawReason.values();
+	// Campos do FEN, compilados uma vez
+	private static final Pattern FEN_SEPARATOR = Pattern.compile("\\s+");
+	private static final Pattern FEN_CASTLING = Pattern.compile("-|K?Q?k?q?");
+	private static final Pattern FEN_EN_PASSANT = Pattern.compile("-|[a-h][36]");
+	private static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L; // Casas claras (a8 é clara)
+
 	public ChessMatch() {
-		board = new Board(8, 8);
+		board = new ChessBoard();
 		turn = 1;
 		currentPlayer = Color.WHITE;
 		check = false;
 		initialSetup();
+		initHashState();
+		pushHistory();
+	}
+
+	public ChessMatch(String fen) { // Partida a partir de uma posição em notação FEN
+		board = new ChessBoard();
+		turn = 1;
+		currentPlayer = Color.WHITE;
+		check = false;
+		loadFen(fen);
+	}
+
+	// Copia independente da posição, com tabuleiro e peças proprios; o historico de desfazer não é copiado.
+	// Cada thread de busca trabalha na sua copia. Os hashes desde a ultima captura ou jogada de peão vêm junto,
+	// para a copia enxergar as repetições das posições ja jogadas, como a partida original.
+	// Copia direto da outra partida, sem passar pelo snapshot(): bitboards e hash são copiados como estão e
+	// só as peças são instanciadas de novo.
+	public ChessMatch(ChessMatch other) {
+		board = new ChessBoard(other.board);
+		turn = other.turn;
+		currentPlayer = other.currentPlayer;
+		check = other.check;
+		checkMate = other.checkMate;
+		castlingRights = other.castlingRights;
+		enPassantColumn = other.enPassantColumn;
+		halfmoveClock = other.halfmoveClock;
+		drawReason = other.drawReason;
+		for (int group = 0; group < 12; group++) {
+			for (int i = 0; i < other.piecesOnTheBoard.count(group); i++) {
+				ChessPiece piece = other.piecesOnTheBoard.get(group, i);
+				ChessPiece copy = newPiece(piece.getType(), piece.getColor());
+				copy.setMoveCount(piece.getMoveCount());
+				board.copyPiece(copy, piece.getSquare());
+				piecesOnTheBoard.add(copy);
+			}
+		}
+		kingSquares[0] = other.kingSquares[0];
+		kingSquares[1] = other.kingSquares[1];
+		enPassantVulnerable = (other.enPassantVulnerable == null) ? null : board.piece(other.enPassantVulnerable.getSquare());
+		promoted = (other.promoted == null) ? null : board.piece(other.promoted.getSquare());
+		for (Piece p : other.capturedPieces) {
+			ChessPiece piece = (ChessPiece) p;
+			capturedPieces.add(newPiece(piece.getType(), piece.getColor()));
+		}
+		checkers = other.checkers;
+		pinned = other.pinned;
+		hash = other.hash;
+		int from = Math.max(0, other.historyCount - 1 - other.halfmoveClock);
+		hashHistory = Arrays.copyOfRange(other.hashHistory, from, Math.max(other.historyCount, from + 16));
+		historyCount = other.historyCount - from;
+	}
+
+	// Partida reconstruida a partir do estado compacto gerado por snapshot()
+	public ChessMatch(long[] snapshot) {
+		if (snapshot.length != SNAPSHOT_LENGTH) {
+			throw new IllegalArgumentException("Invalid snapshot length: " + snapshot.length);
+		}
+		board = new ChessBoard();
+		long state = snapshot[SNAPSHOT_STATE];
+		turn = (int) state & 0xFFFFF;
+		currentPlayer = COLORS[(int) (state >>> 20) & 1];
+		check = ((state >>> 21) & 1) != 0;
+		checkMate = ((state >>> 22) & 1) != 0;
+		castlingRights = (int) (state >>> 23) & 0xF;
+		enPassantColumn = (int) ((state >>> 27) & 0xF) - 1;
+		int enPassantSquare = (int) ((state >>> 31) & 0x7F) - 1;
+		int promotedSquare = (int) ((state >>> 38) & 0x7F) - 1;
+		int draw = (int) (state >>> 45) & 0x7;
+		drawReason = (draw == 0) ? null : DRAW_REASONS[draw - 1];
+		halfmoveClock = (int) (state >>> 48);
+		for (int word = 0; word < 4; word++) { // Só as casas ocupadas: pula os grupos de 4 bits zerados
+			long codes = snapshot[word];
+			while (codes != 0) {
+				int shift = Long.numberOfTrailingZeros(codes) & ~3;
+				int code = (int) (codes >>> shift) & 0xF;
+				codes &= ~(0xFL << shift);
+				int square = word * 16 + shift / 4;
+				ChessPiece piece = newPiece(PieceType.of((code - 1) % 6), COLORS[(code - 1) / 6]);
+				if ((snapshot[SNAPSHOT_MOVED] & (1L << square)) != 0) {
+					piece.setMoveCount(1);
+				}
+				placeNewPiece(piece, square);
+			}
+		}
+		enPassantVulnerable = (enPassantSquare < 0) ? null : board.piece(enPassantSquare);
+		promoted = (promotedSquare < 0) ? null : board.piece(promotedSquare);
+		long captured = snapshot[SNAPSHOT_CAPTURED];
+		for (int code = 0; code < 12; code++) {
+			int count = (int) (captured >>> (code * 5)) & 0x1F;
+			for (int i = 0; i < count; i++) {
+				capturedPieces.add(newPiece(PieceType.of(code % 6), COLORS[code / 6]));
+			}
+		}
+		checkers = snapshot[SNAPSHOT_CHECKERS];
+		pinned = snapshot[SNAPSHOT_PINNED];
+		hash = snapshot[SNAPSHOT_HASH];
+		pushHistory();
 	}
 
 	public ChessPiece[][] getPieces() {
@@ -61,6 +225,32 @@ public class ChessMatch {
 		return checkMate;
 	}
 	
+	public boolean getDraw() {
+		return drawReason != null;
+	}
+
+	public DrawReason getDrawReason() { // Motivo do empate, ou nulo se a partida não terminou empatada
+		return drawReason;
+	}
+
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+
+	// Quantas vezes a posição atual ja apareceu antes na partida. Só olha as posições desde a ultima
+	// captura ou jogada de peão, e só as do mesmo jogador da vez.
+	public int repetitionCount() {
+		long current = hashHistory[historyCount - 1];
+		int oldest = Math.max(0, historyCount - 1 - halfmoveClock);
+		int count = 0;
+		for (int i = historyCount - 3; i >= oldest; i -= 2) {
+			if (hashHistory[i] == current) {
+				count++;
+			}
+		}
+		return count;
+	}
+
 	public ChessPiece getEnPassantVulnerable() {
 		return enPassantVulnerable;
 	}
@@ -69,67 +259,501 @@ public class ChessMatch {
 		return promoted;
 	}
 
+	// Estado compacto da posição em 10 longs, sem referencias a objetos: peças por casa (4 bits cada),
+	// casas das peças que ja se moveram, checkers, cravadas, hash, vez/flags e contagem de capturadas.
+	// A contagem de movimentos de cada peça fica reduzida a "moveu ou não", que é o que as regras usam,
+	// e o historico de repetição recomeça na posição copiada.
+	public long[] snapshot() {
+		if (turn > 0xFFFFF || halfmoveClock > 0xFFFF) { // Não cabem nos campos do estado: melhor falhar do que truncar
+			throw new IllegalStateException("Turn " + turn + " or halfmove clock " + halfmoveClock + " too large for a snapshot");
+		}
+		long[] snapshot = new long[SNAPSHOT_LENGTH];
+		long moved = 0;
+		for (int group = 0; group < 12; group++) {
+			long code = group + 1; // Grupo da PieceList = cor * 6 + tipo
+			for (int i = 0; i < piecesOnTheBoard.count(group); i++) {
+				ChessPiece piece = piecesOnTheBoard.get(group, i);
+				int square = piece.getSquare();
+				snapshot[square >>> 4] |= code << ((square & 15) * 4);
+				if (piece.getMoveCount() > 0) {
+					moved |= 1L << square;
+				}
+			}
+		}
+		long captured = 0;
+		for (Piece p : capturedPieces) {
+			ChessPiece piece = (ChessPiece) p;
+			captured += 1L << ((piece.getColor().ordinal() * 6 + ChessBoard.type(piece)) * 5);
+		}
+		snapshot[SNAPSHOT_MOVED] = moved;
+		snapshot[SNAPSHOT_CHECKERS] = checkers;
+		snapshot[SNAPSHOT_PINNED] = pinned;
+		snapshot[SNAPSHOT_HASH] = hash;
+		// Bits: 0-19 turno, 20 vez, 21 check, 22 checkMate, 23-26 roque, 27-30 coluna de en passant,
+		// 31-37 casa do peão vulneravel, 38-44 casa da peça promovida, 45-47 empate, 48-63 meios-lances
+		snapshot[SNAPSHOT_STATE] = (turn & 0xFFFFFL) | ((long) currentPlayer.ordinal() << 20)
+				| ((check ? 1L : 0L) << 21) | ((checkMate ? 1L : 0L) << 22) | ((long) castlingRights << 23)
+				| ((long) (enPassantColumn + 1) << 27)
+				| ((long) ((enPassantVulnerable == null) ? 0 : enPassantVulnerable.getSquare() + 1) << 31)
+				| ((long) ((promoted == null) ? 0 : promoted.getSquare() + 1) << 38)
+				| ((long) ((drawReason == null) ? 0 : drawReason.ordinal() + 1) << 45)
+				| ((long) halfmoveClock << 48);
+		snapshot[SNAPSHOT_CAPTURED] = captured;
+		return snapshot;
+	}
+
+	public long getHash() { // Identidade da posição (Zobrist), chave para tabelas de transposição e repetição
+		return board.getHash() ^ hash;
+	}
+
+	public long getCheckers() {
+		return checkers;
+	}
+
+	public long getPinnedPieces() {
+		return pinned;
+	}
+
+	public ChessPiece getKing(Color color) {
+		return king(color);
+	}
+
+	public ChessPosition getKingPosition(Color color) {
+		king(color);
+		return ChessPosition.fromSquare(kingSquares[color.ordinal()]);
+	}
+
+	// Consultas diretas aos bitboards, para avaliação e ordenação de jogadas nas buscas
+	public long getBitboard(Color color) {
+		return board.getPieces(color);
+	}
+
+	public long getBitboard(int type, Color color) {
+		return board.getPieces(type, color);
+	}
+
+	public int getPieceType(int square) {
+		return board.typeAt(square);
+	}
+
 	public boolean[][] possibleMoves(ChessPosition sourcePosition) {
-		Position position = sourcePosition.toPosition();
-		validateSourcePosition(position);
-		return board.piece(position).possibleMoves();
+		int square = sourcePosition.toSquare();
+		validateSourcePosition(square);
+		return board.piece(square).possibleMoves();
+	}
+
+	// Jogadas pseudo-legais do jogador da vez, compactadas (ver Move), escritas no buffer informado
+	public int generateMoves(int[] moves) {
+		return generateMoves(currentPlayer, moves);
+	}
+
+	// Jogadas legais do jogador da vez, compactadas (ver Move). A legalidade sai das peças cravadas e da
+	// mascara de check, sem executar as jogadas; só o en passant simula a ocupação depois da captura.
+	public int legalMoves(int[] moves) {
+		return legalMoves(currentPlayer, moves);
+	}
+
+	// Lance do livro de aberturas para a posição atual, sorteado pelo peso e já com os flags de uma jogada
+	// legal; Move.NONE fora do livro ou se o lance do livro não for legal aqui (colisão de hash)
+	public int bookMove(OpeningBook book, RandomGenerator random) {
+		if (checkMate || drawReason != null) {
+			return Move.NONE;
+		}
+		int move = book.select(getHash(), random);
+		if (move == Move.NONE) {
+			return Move.NONE;
+		}
+		int[] moves = moveBuffer();
+		int count = legalMoves(currentPlayer, moves);
+		for (int i = 0; i < count; i++) {
+			if (Move.toShort(moves[i]) == Move.toShort(move)) {
+				return moves[i];
+			}
+		}
+		return Move.NONE;
+	}
+
+	private int legalMoves(Color color, int[] moves) {
+		return filterLegal(color, moves, generateMoves(color, moves));
+	}
+
+	// Mantem no inicio do vetor só as jogadas legais entre as count primeiras, e retorna quantas são
+	private int filterLegal(Color color, int[] moves, int count) {
+		Color opponent = opponent(color);
+		int kingSquare = kingSquares[color.ordinal()];
+		long occupied = board.getOccupied();
+		long attackers = board.attackersTo(kingSquare, opponent, occupied);
+		long pinnedPieces = board.pinnedPieces(kingSquare, color);
+		long checkMask; // Casas que resolvem o check, capturando ou bloqueando a peça que o da
+		if (attackers == 0) {
+			checkMask = -1L;
+		} else if ((attackers & (attackers - 1)) != 0) {
+			checkMask = 0; // Check duplo: só o rei pode se mover
+		} else {
+			checkMask = attackers | Attacks.between(kingSquare, Long.numberOfTrailingZeros(attackers));
+		}
+
+		int legal = 0;
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int from = Move.getFrom(move);
+			long toBit = 1L << Move.getTo(move);
+			boolean ok;
+			if (from == kingSquare) { // O rei não pode ir para casa atacada, nem recuar na linha do atacante
+				ok = board.attackersTo(Move.getTo(move), opponent, occupied ^ (1L << from)) == 0;
+			} else if ((Move.getFlags(move) & Move.EN_PASSANT) != 0) { // Tira dois peões da mesma fileira de uma vez
+				long capturedBit = 1L << (from / 8 * 8 + Move.getTo(move) % 8);
+				long after = occupied ^ (1L << from) ^ toBit ^ capturedBit;
+				ok = (board.attackersTo(kingSquare, opponent, after) & ~capturedBit) == 0;
+			} else {
+				ok = (checkMask & toBit) != 0
+						&& ((pinnedPieces & (1L << from)) == 0 || (Attacks.line(kingSquare, from) & toBit) != 0);
+			}
+			if (ok) {
+				moves[legal++] = move;
+			}
+		}
+		return legal;
+	}
+
+	private int generateMoves(Color color, int[] moves) {
+		int count = 0;
+		long pieces = board.getPieces(color);
+		while (pieces != 0) {
+			count = board.piece(Long.numberOfTrailingZeros(pieces)).generateMoves(moves, count);
+			pieces &= pieces - 1;
+		}
+		return count;
+	}
+
+	// Executa uma jogada compactada (ver Move) sem validar a origem. Se a jogada deixar o proprio rei
+	// em check, ela é desfeita e o retorno é false. Não testa checkmate: é a base de perft e das buscas.
+	public boolean makeMove(int move) {
+		if (ply == plyMoves.length) {
+			growUndoStack();
+		}
+		plyMoves[ply] = move;
+		plyEnPassant[ply] = enPassantVulnerable;
+		plyCheckers[ply] = checkers;
+		plyPinned[ply] = pinned;
+		plyPromotedPawn[ply] = null;
+		plyPromoted[ply] = promoted;
+		plyHash[ply] = hash;
+		plyState[ply] = castlingRights | ((enPassantColumn + 1) << 4) | (gameResult() << 8) | (halfmoveClock << 13);
+
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		halfmoveClock = (Move.isCapture(move) || board.typeAt(from) == ChessBoard.PAWN) ? 0 : halfmoveClock + 1;
+		plyCaptured[ply] = makeMove(from, to);
+		ChessPiece p = board.piece(to);
+
+		if (Move.getPromotion(move) != 0) { // Jogada especial promoção: troca o peão pela peça escolhida
+			plyPromotedPawn[ply] = p;
+			board.removePiece(to);
+			piecesOnTheBoard.remove(p);
+			ChessPiece newPiece = newPiece(PieceType.of(Move.getPromotion(move)), p.getColor());
+			board.placePiece(newPiece, to);
+			piecesOnTheBoard.add(newPiece);
+		}
+		enPassantVulnerable = ((Move.getFlags(move) & Move.DOUBLE_PUSH) != 0) ? p : null;
+		ply++;
+
+		Color mover = currentPlayer;
+		nextTurn();
+		updateHashState();
+		pushHistory();
+		if (testCheck(mover)) {
+			undoMove();
+			return false;
+		}
+		updateCheckInfo(currentPlayer);
+		check = checkers != 0;
+		return true;
+	}
+
+	// Desfaz a ultima jogada, da partida ou de makeMove(int), restaurando todo o estado a partir do registro
+	public void undoMove() {
+		if (ply == 0) {
+			throw new IllegalStateException("There is no move to undo");
+		}
+		ply--;
+		int move = plyMoves[ply];
+		int source = Move.getFrom(move);
+		int target = Move.getTo(move);
+		int state = plyState[ply];
+
+		if ((state & PLY_TURN_KEPT) == 0) { // No checkMate a vez não tinha passado
+			turn--;
+			currentPlayer = opponent(currentPlayer);
+		}
+		if (plyPromotedPawn[ply] != null) { // Voltando o peão para o lugar da peça promovida
+			ChessPiece newPiece = board.piece(target);
+			board.removePiece(target);
+			piecesOnTheBoard.remove(newPiece);
+			board.placePiece(plyPromotedPawn[ply], target);
+			piecesOnTheBoard.add(plyPromotedPawn[ply]);
+			plyPromotedPawn[ply] = null;
+		}
+		enPassantVulnerable = plyEnPassant[ply]; // O undo do en passant depende do peão vulneravel anterior
+		undoMove(source, target, plyCaptured[ply]);
+		plyCaptured[ply] = null;
+		checkers = plyCheckers[ply];
+		pinned = plyPinned[ply];
+		check = checkers != 0;
+		hash = plyHash[ply]; // Estado do hash volta direto do registro, sem recalcular
+		castlingRights = state & 0xF;
+		enPassantColumn = ((state >>> 4) & 0xF) - 1;
+		setGameResult((state >>> 8) & 0xF);
+		halfmoveClock = state >>> 13;
+		promoted = plyPromoted[ply];
+		plyPromoted[ply] = null;
+		historyCount--;
+	}
+
+	// Lances da partida desde a posição inicial (ou o FEN), na ordem jogada; as promoções já com a peça escolhida
+	public int[] getMoveHistory() {
+		return Arrays.copyOf(plyMoves, ply);
+	}
+
+	public int getLastMove() { // Move.NONE antes do primeiro lance
+		return (ply == 0) ? Move.NONE : plyMoves[ply - 1];
+	}
+
+	public boolean canUnmakeMove() {
+		return ply > 0;
+	}
+
+	public boolean canRedoMove() {
+		return redoCount > 0 && redoHashes[redoCount - 1] == getHash();
+	}
+
+	// Volta um lance da partida em tempo constante, guardando-o para redoMove()
+	public void unmakeMove() {
+		if (ply == 0) {
+			throw new IllegalStateException("There is no move to undo");
+		}
+		int move = plyMoves[ply - 1];
+		int result = gameResult();
+		undoMove();
+		if (redoCount == redoMoves.length) {
+			int size = Math.max(16, redoCount * 2);
+			redoMoves = Arrays.copyOf(redoMoves, size);
+			redoResults = Arrays.copyOf(redoResults, size);
+			redoHashes = Arrays.copyOf(redoHashes, size);
+		}
+		redoMoves[redoCount] = move;
+		redoResults[redoCount] = result;
+		redoHashes[redoCount] = getHash();
+		redoCount++;
+	}
+
+	// Refaz o ultimo lance desfeito por unmakeMove(), sem validar de novo nem recalcular checkMate e empate
+	public void redoMove() {
+		if (redoCount == 0) {
+			throw new IllegalStateException("There is no move to redo");
+		}
+		if (redoHashes[redoCount - 1] != getHash()) {
+			throw new IllegalStateException("The position changed since the move was undone");
+		}
+		redoCount--;
+		int move = redoMoves[redoCount];
+		makeMove(move);
+		promoted = (Move.getPromotion(move) != 0) ? board.piece(Move.getTo(move)) : null;
+		setGameResult(redoResults[redoCount]);
+		if (checkMate) {
+			keepTurn();
+		}
+	}
+
+	private int gameResult() { // checkMate e motivo do empate em 4 bits, para os registros de desfazer e refazer
+		return (checkMate ? 8 : 0) | ((drawReason == null) ? 0 : drawReason.ordinal() + 1);
+	}
+
+	private void setGameResult(int result) {
+		checkMate = (result & 8) != 0;
+		drawReason = ((result & 7) == 0) ? null : DRAW_REASONS[(result & 7) - 1];
+	}
+
+	private void growUndoStack() {
+		int size = Math.max(64, plyMoves.length * 2);
+		plyMoves = Arrays.copyOf(plyMoves, size);
+		plyCaptured = Arrays.copyOf(plyCaptured, size);
+		plyEnPassant = Arrays.copyOf(plyEnPassant, size);
+		plyPromotedPawn = Arrays.copyOf(plyPromotedPawn, size);
+		plyPromoted = Arrays.copyOf(plyPromoted, size);
+		plyCheckers = Arrays.copyOf(plyCheckers, size);
+		plyPinned = Arrays.copyOf(plyPinned, size);
+		plyHash = Arrays.copyOf(plyHash, size);
+		plyState = Arrays.copyOf(plyState, size);
+	}
+
+	// Conta as folhas da arvore de jogadas legais ate a profundidade informada
+	public long perft(int depth) {
+		if (depth <= 0) {
+			return 1;
+		}
+		return perft(depth, new int[depth + 1][256]);
+	}
+
+	// Perft separado por jogada da raiz, na ordem em que as jogadas foram geradas
+	public Map<String, Long> divide(int depth) {
+		Map<String, Long> result = new LinkedHashMap<>();
+		if (depth <= 0) {
+			return result;
+		}
+		int[][] buffers = new int[depth + 1][256];
+		int count = generateMoves(currentPlayer, buffers[depth]);
+		for (int i = 0; i < count; i++) {
+			int move = buffers[depth][i];
+			if (makeMove(move)) {
+				result.put(Move.toString(move), perft(depth - 1, buffers));
+				undoMove();
+			}
+		}
+		return result;
+	}
+
+	private long perft(int depth, int[][] buffers) {
+		if (depth == 0) {
+			return 1;
+		}
+		int[] moves = buffers[depth];
+		int count = generateMoves(currentPlayer, moves);
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			if (makeMove(moves[i])) {
+				nodes += (depth == 1) ? 1 : perft(depth - 1, buffers);
+				undoMove();
+			}
+		}
+		return nodes;
+	}
+
+	// Jogada compactada (ver Move) pela mesma validação da jogada do console, ja com a peça da promoção
+	public ChessPiece performChessMove(int move) {
+		return performChessMove(Move.getFrom(move), Move.getTo(move), Move.getPromotion(move));
 	}
 
 	public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
-		Position source = sourcePosition.toPosition();
-		Position target = targetPosition.toPosition();
+		return performChessMove(sourcePosition.toSquare(), targetPosition.toSquare(), ChessBoard.QUEEN); // Rainha como padrão
+	}
+
+	// A jogada validada é executada por makeMove(int), então fica na pilha de desfazer como qualquer outra
+	private ChessPiece performChessMove(int source, int target, int promotion) {
+		if (checkMate || drawReason == DrawReason.STALEMATE) { // Depois do mate a vez fica com o vencedor: sem isso ele jogaria de novo
+			throw new ChessException("The game is over");
+		}
 		validateSourcePosition(source);
 		validateTargetPosition(source, target);
-		Piece capturedPiece = makeMove(source, target); // Execução do movimento
-
-		if (testCheck(currentPlayer)) { // Checagem para saber se o movimento do jogador esta colocando seu REI em check
-			undoMove(source, target, capturedPiece);
+		int move = legalMove(source, target, promotion);
+		if (move == Move.NONE) { // Checagem para saber se o movimento do jogador colocaria seu REI em check
 			throw new ChessException("You can't put yourself in check");
 		}
-		
-		ChessPiece movedPiece = (ChessPiece)board.piece(target); 
-
-		//Jogada especial promotion
-		promoted = null;
-		if (movedPiece instanceof Pawn) {//Testando se a peça movida foi peão
-			if ((movedPiece.getColor() == Color.WHITE && target.getRow() == 0) || (movedPiece.getColor() == Color.BLACK && target.getRow() == 7)) { //Verificando cor da peça e se chegou ao final do tabuleiro
-				promoted = (ChessPiece)board.piece(target); //Passando o peão como peça promovida
-				promoted = replacePromotedPiece("Q"); //Recebendo a rainha como padrão
-			}
+		makeMove(move);
+		redoCount = 0; // Um lance novo descarta os lances desfeitos
+		finishMove();
+		return (ChessPiece) plyCaptured[ply - 1];
+	}
+
+	// Fecha a jogada da partida feita por makeMove(int): peça promovida, checkMate e empate
+	private void finishMove() {
+		int move = plyMoves[ply - 1];
+		promoted = (Move.getPromotion(move) != 0) ? board.piece(Move.getTo(move)) : null;
+		checkMate = check && legalMoves(currentPlayer, moveBuffer()) == 0;
+		if (checkMate) { // Se a jogada deixou o oponente em checkMate, o jogo acabou
+			keepTurn();
 		}
-		
-		check = (testCheck(opponent(currentPlayer))) ? true : false; // Verificando se o test check do oponente é
-																		// verdadeiro ou falso para definir estado da																// partida
+		updateDrawReason();
+	}
 
-		if (testCheckMate(opponent(currentPlayer))) { // Se a jogada deixou o oponente em checkMate, o jogo acabou
-			checkMate = true;
-		} else { // Caso contrario, vai para o próximo turno
-			nextTurn();
+	// No checkMate a vez não passa: o jogador da vez é o vencedor. O registro da jogada guarda isso para o undo
+	private void keepTurn() {
+		previousTurn();
+		historyCount--;
+		pushHistory();
+		plyState[ply - 1] |= PLY_TURN_KEPT;
+	}
+
+	private void updateDrawReason() {
+		drawReason = null;
+		if (checkMate) {
+			return;
 		}
-		
-		// #Jogada Especial en passant
-		if (movedPiece instanceof Pawn && (target.getRow() == source.getRow() -2 || target.getRow() == source.getRow() +2 )) { 
-			//Testando se a peça moveu duas casas
-			enPassantVulnerable = movedPiece;
-		} else {
-			enPassantVulnerable = null;
+		if (!check && legalMoves(currentPlayer, moveBuffer()) == 0) {
+			drawReason = DrawReason.STALEMATE;
+		} else if (insufficientMaterial()) {
+			drawReason = DrawReason.INSUFFICIENT_MATERIAL;
+		} else if (halfmoveClock >= 100) {
+			drawReason = DrawReason.FIFTY_MOVE_RULE;
+		} else if (repetitionCount() >= 2) {
+			drawReason = DrawReason.THREEFOLD_REPETITION;
 		}
-		return (ChessPiece) capturedPiece;
 	}
-	
+
+	// Nenhum dos lados consegue dar mate: só reis, um unico cavalo ou bispo, ou só bispos da mesma cor de casa
+	private boolean insufficientMaterial() {
+		if ((board.getPieces(ChessBoard.PAWN) | board.getPieces(ChessBoard.ROOK) | board.getPieces(ChessBoard.QUEEN)) != 0) {
+			return false;
+		}
+		long knights = board.getPieces(ChessBoard.KNIGHT);
+		long bishops = board.getPieces(ChessBoard.BISHOP);
+		if (Long.bitCount(knights | bishops) <= 1) {
+			return true;
+		}
+		return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+	}
+
+	private void pushHistory() {
+		if (historyCount == hashHistory.length) {
+			hashHistory = Arrays.copyOf(hashHistory, historyCount * 2);
+		}
+		hashHistory[historyCount++] = getHash();
+	}
+
+	// Promoção pela letra do console (B, N, R ou Q); qualquer outro valor mantem a peça atual
 	public ChessPiece replacePromotedPiece(String type) {
+		PieceType pieceType = (type.length() == 1) ? PieceType.fromLetter(type.charAt(0)) : null;
+		if (pieceType == null || !pieceType.isPromotion()) {
+			if (promoted == null) {
+				throw new IllegalStateException("There is no piece to be promoted");
+			}
+			return promoted;
+		}
+		return replacePromotedPiece(pieceType);
+	}
+
+	// A peça escolhida pode mudar check, checkMate e empate: a jogada é fechada de novo com ela
+	public ChessPiece replacePromotedPiece(PieceType type) {
+		if (!type.isPromotion()) {
+			throw new IllegalArgumentException("Invalid promotion piece: " + type);
+		}
+		ChessPiece newPiece = promote(type);
+		if (ply == 0) { // Partida copiada logo depois da promoção, sem o registro da jogada
+			promoted = newPiece;
+			return newPiece;
+		}
+		if ((plyState[ply - 1] & PLY_TURN_KEPT) != 0) { // Volta ao estado logo depois de makeMove(int)
+			plyState[ply - 1] &= ~PLY_TURN_KEPT;
+			nextTurn();
+		}
+		int move = plyMoves[ply - 1];
+		plyMoves[ply - 1] = Move.encode(Move.getFrom(move), Move.getTo(move), Move.getFlags(move), type);
+		updateCheckInfo(currentPlayer);
+		check = checkers != 0;
+		historyCount--;
+		pushHistory();
+		finishMove();
+		return newPiece;
+	}
+
+	private ChessPiece promote(PieceType type) {
 		if (promoted == null) { //Se a peça promovida for nulo
 			throw new IllegalStateException("There is no piece to be promoted");
 		}
 		
-		//usando .equals pois String é do tipo classe e não do tipo primitivo
-		if (!type.equals("B") && !type.equals("N") && !type.equals("R") & !type.equals("Q")) { //Se a peça promovida for diferente das peças validas
-			return promoted;
-		}
-		
-		Position pos = promoted.getChessPosition().toPosition(); //Pegando posição da peça promovida
-		Piece p = board.removePiece(pos); //Passando para variavel P a posição 
-		piecesOnTheBoard.remove(p); //Excluindo a peça P do tabuleiro
+		int pos = promoted.getSquare(); //Pegando posição da peça promovida
+		board.removePiece(pos); //Tirando o peão do tabuleiro
+		piecesOnTheBoard.remove(promoted); //Excluindo o peão da lista de peças
 		
 		ChessPiece newPiece = newPiece(type, promoted.getColor()); //Instanciando a peça
 		board.placePiece(newPiece, pos); //Colocando a peça instanciada na posição que foi removida
@@ -138,18 +762,28 @@ public class ChessMatch {
 		return newPiece;
 	}
 
-	private ChessPiece newPiece(String type, Color color) { //Metodo de instanciação auxiliar para jogada especial promoçao
-		if (type.equals("B")) return new Bishop(board, color); //Se o tipo for B, significa que esta instanciando um Bispo
-		if (type.equals("N")) return new Knight(board, color); //Se o tipo for N, significa que esta instanciando um Cavalo
-		if (type.equals("Q")) return new Queen(board, color);  //Se o tipo for Q, significa que esta instanciando uma Rainha
-        return new Rook(board, color); //Se não for nenhum anterior, significa que esta instanciando uma Torre
+	private ChessPiece newPiece(PieceType type, Color color) { // Instanciando a peça pelo tipo
+		switch (type) {
+		case PAWN:
+			return new Pawn(board, color, this);
+		case KNIGHT:
+			return new Knight(board, color);
+		case BISHOP:
+			return new Bishop(board, color);
+		case ROOK:
+			return new Rook(board, color);
+		case QUEEN:
+			return new Queen(board, color);
+		default:
+			return new King(board, color, this);
+		}
 	}
-	
-	private void validateSourcePosition(Position position) {
+
+	private void validateSourcePosition(int position) {
 		if (!board.thereIsAPiece(position)) { // Exceção de verificação se há peças na devida posição
 			throw new ChessException("There is no piece on source position");
 		}
-		if (currentPlayer != ((ChessPiece) board.piece(position)).getColor()) { // Exceção se a peça escolhida é do
+		if (currentPlayer != board.piece(position).getColor()) { // Exceção se a peça escolhida é do
 																				// jogador de posse do turno
 			throw new ChessException("The chose piece is not yours");
 		}
@@ -158,56 +792,83 @@ public class ChessMatch {
 		}
 	}
 
-	private void validateTargetPosition(Position source, Position target) {
-		if (!board.piece(source).possibleMove(target)) {
+	private void validateTargetPosition(int source, int target) {
+		if ((board.piece(source).possibleMovesBitboard() & (1L << target)) == 0) {
 			throw new ChessException("The chosen piece, can't move to target position");
 		}
 	}
 
-	private Piece makeMove(Position source, Position target) {
+	// Jogada legal da peça de origem para o destino, com os flags; na promoção, a peça informada (rainha se
+	// não for uma peça de promoção). Move.NONE se a jogada deixaria o proprio rei em check.
+	private int legalMove(int source, int target, int promotion) {
+		if (promotion < ChessBoard.KNIGHT || promotion > ChessBoard.QUEEN) {
+			promotion = ChessBoard.QUEEN;
+		}
+		int[] moves = moveBuffer();
+		int count = filterLegal(currentPlayer, moves, board.piece(source).generateMoves(moves, 0));
+		for (int i = 0; i < count; i++) {
+			if (Move.getTo(moves[i]) == target
+					&& (Move.getPromotion(moves[i]) == 0 || Move.getPromotion(moves[i]) == promotion)) {
+				return moves[i];
+			}
+		}
+		return Move.NONE;
+	}
+
+	private int[] moveBuffer() {
+		if (moveBuffer == null) {
+			moveBuffer = new int[256];
+		}
+		return moveBuffer;
+	}
+
+	private Piece makeMove(int source, int target) { // Casas do ChessBoard (linha * 8 + coluna)
 		ChessPiece p = (ChessPiece) board.removePiece(source); // Tirando peça de origem
 		p.increaseMoveCount(); // Incrementando 1 a quantidade de movimentos de peças
 		Piece capturedPiece = board.removePiece(target); // Tirando do tabuleiro possível peça capturada na posição
 															// destino e guardando na variavel
 		board.placePiece(p, target); // Colocando na posição de destino a peça que estava na origem
+		if (p.getType() == PieceType.KING) {
+			kingSquares[p.getColor().ordinal()] = target; // Atualizando a casa do rei
+		}
 
 		if (capturedPiece != null) { // Se a captura de peça for valida
-			piecesOnTheBoard.remove(capturedPiece); // Remove a peça capturada da contagem de peças do tabuleiro
+			piecesOnTheBoard.remove((ChessPiece) capturedPiece); // Remove a peça capturada da contagem de peças do tabuleiro
 			capturedPieces.add(capturedPiece); // Adiciona a peça capturada a contagem de peças capturadas
 		}
 		
 		//Jogada especial roque pequeno (Tratamento)
 		//Movimento manual da torre
-		if (p instanceof King && target.getColumn() == source.getColumn() + 2) {
-			Position sourceT = new Position(source.getRow(), source.getColumn() + 3); //Posição origem
-			Position targetT = new Position(source.getRow(), source.getColumn() + 1); //Posição destino
+		if (p.getType() == PieceType.KING && target == source + 2) {
+			int sourceT = source + 3; //Posição origem
+			int targetT = source + 1; //Posição destino
 			ChessPiece rook = (ChessPiece)board.removePiece(sourceT); //Retira da posição origem
 			board.placePiece(rook, targetT); //Coloca na posição destino
 			rook.increaseMoveCount(); //Incrementa na contagem de movimentos
 		}
 
 		//Jogada especial roque grande
-		if (p instanceof King && target.getColumn() == source.getColumn() - 2) {
-			Position sourceT = new Position(source.getRow(), source.getColumn() - 4); //Posição origem
-			Position targetT = new Position(source.getRow(), source.getColumn() - 1); //Posição destino
+		if (p.getType() == PieceType.KING && target == source - 2) {
+			int sourceT = source - 4; //Posição origem
+			int targetT = source - 1; //Posição destino
 			ChessPiece rook = (ChessPiece)board.removePiece(sourceT); //Retira da posição origem
 			board.placePiece(rook, targetT); //Coloca na posição destino
 			rook.increaseMoveCount();  //Incrementa na contagem de movimentos
 		}		
 
 		//Jogada especial en passant
-		if (p instanceof Pawn) {
-			if (source.getColumn() != target.getColumn() && capturedPiece == null) {
-				Position pawnPosition;
+		if (p.getType() == PieceType.PAWN) {
+			if (source % 8 != target % 8 && capturedPiece == null) {
+				int pawnPosition;
 				if (p.getColor() == Color.WHITE) {
-					pawnPosition = new Position(target.getRow() +1, target.getColumn());
+					pawnPosition = target + 8;
 				}
 				else {
-					pawnPosition = new Position(target.getRow() -1, target.getColumn());
+					pawnPosition = target - 8;
 				}
 				capturedPiece = board.removePiece(pawnPosition);
 				capturedPieces.add(capturedPiece);
-				piecesOnTheBoard.remove(capturedPiece); 
+				piecesOnTheBoard.remove((ChessPiece) capturedPiece); 
 			}
 			
 		}
@@ -215,46 +876,49 @@ public class ChessMatch {
 		return capturedPiece;
 	}
 
-	private void undoMove(Position source, Position target, Piece capturedPiece) { // Desfazendo a jogada
+	private void undoMove(int source, int target, Piece capturedPiece) { // Desfazendo a jogada
 		ChessPiece p = (ChessPiece) board.removePiece(target); // Pega a peça que esta na posição destino
 		p.decreaseMoveCount(); // Decrementando 1 a quantidade de movimentos da peça
 		board.placePiece(p, source); // Pegando a peça P e colocando na posição de origem novamente
+		if (p.getType() == PieceType.KING) {
+			kingSquares[p.getColor().ordinal()] = source;
+		}
 		if (capturedPiece != null) {
 			board.placePiece(capturedPiece, target);
-			capturedPieces.remove(capturedPiece); // Remove a peça capturada da contagem de peças capturadas
-			piecesOnTheBoard.add(capturedPiece); // Adiciona a peça capturada novamente a contagem de peças de tabuleiro
+			capturedPieces.remove(capturedPieces.size() - 1); // A ultima capturada: undo desfaz sempre a jogada mais recente
+			piecesOnTheBoard.add((ChessPiece) capturedPiece); // Adiciona a peça capturada novamente a contagem de peças de tabuleiro
 		}
 
 	
 	
 		// Jogada especial roque pequeno (Desfazendo jogada manualmente)
-		if (p instanceof King && target.getColumn() == source.getColumn() + 2) {
-			Position sourceT = new Position(source.getRow(), source.getColumn() + 3); // Posição origem
-			Position targetT = new Position(source.getRow(), source.getColumn() + 1); // Posição destino
+		if (p.getType() == PieceType.KING && target == source + 2) {
+			int sourceT = source + 3; // Posição origem
+			int targetT = source + 1; // Posição destino
 			ChessPiece rook = (ChessPiece) board.removePiece(targetT); // Tirando da posição destino
 			board.placePiece(rook, sourceT); // Colocando na posição origem
 			rook.decreaseMoveCount(); // Decrementando na contagem de movimentos
 		}
 
 		// Jogada especial roque grande (Desfazendo jogada manualmente)
-		if (p instanceof King && target.getColumn() == source.getColumn() - 2) {
-			Position sourceT = new Position(source.getRow(), source.getColumn() - 4); // Posição origem
-			Position targetT = new Position(source.getRow(), source.getColumn() - 1); // Posição destino
+		if (p.getType() == PieceType.KING && target == source - 2) {
+			int sourceT = source - 4; // Posição origem
+			int targetT = source - 1; // Posição destino
 			ChessPiece rook = (ChessPiece) board.removePiece(targetT); // Tirando da posição destino
 			board.placePiece(rook, sourceT); // Colocando na posição origem
 			rook.decreaseMoveCount(); // Decrementando na contagem de movimentos
 		}
 		
 		//Jogada especial en passant
-				if (p instanceof Pawn) {
-					if (source.getColumn() != target.getColumn() && capturedPiece == enPassantVulnerable) {
+				if (p.getType() == PieceType.PAWN) {
+					if (source % 8 != target % 8 && capturedPiece == enPassantVulnerable) {
 						ChessPiece pawn = (ChessPiece)board.removePiece(target);
-						Position pawnPosition;
+						int pawnPosition;
 						if (p.getColor() == Color.WHITE) {
-							pawnPosition = new Position(3, target.getColumn());
+							pawnPosition = ChessBoard.square(3, target % 8);
 						}
 						else {
-							pawnPosition = new Position(4, target.getColumn());
+							pawnPosition = ChessBoard.square(4, target % 8);
 						}
 						board.placePiece(pawn, pawnPosition);							 
 					}
@@ -265,74 +929,291 @@ public class ChessMatch {
 	private void nextTurn() { // Troca de turno entre jogadores
 		turn++;
 		currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		hash ^= Zobrist.blackToMove();
 	}
 
-	private Color opponent(Color color) { // Definindo qual a cor do oponente
-		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	private void previousTurn() {
+		turn--;
+		currentPlayer = opponent(currentPlayer);
+		hash ^= Zobrist.blackToMove();
 	}
 
-	private ChessPiece king(Color color) { // Procurando na lista de jogo, qual o rei da determinada cor
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
-		// Recebe as peças em jogo, procura toda peça X, e filtra a peça que é da cor
-		// passada como argumento
-		// fazendo downcasting Piece de para ChessPiece, pois é ChessPiece que tem cor.
-		for (Piece p : list) {
-			if (p instanceof King) { // Se a peça P for instancia de Rei
-				return (ChessPiece) p; // Retorna o REI
-			}
+	// Atualiza as chaves de roque e en passant do hash, trocando a chave antiga pela nova quando mudam
+	private void updateHashState() {
+		int rights = (castlingRights == 0) ? 0 : computeCastlingRights(); // Sem undo, direito perdido não volta
+		if (rights != castlingRights) {
+			hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+			castlingRights = rights;
+		}
+		int column = computeEnPassantColumn();
+		if (column != enPassantColumn) {
+			hash ^= Zobrist.enPassant(enPassantColumn) ^ Zobrist.enPassant(column);
+			enPassantColumn = column;
 		}
-		throw new IllegalStateException("There is no " + color + " King on the board");
+	}
+
+	private int computeCastlingRights() { // Direitos de roque derivados das contagens de movimento de rei e torres
+		int rights = 0;
+		if (hasCastlingRight(Color.WHITE, 60, 63)) rights |= 1;
+		if (hasCastlingRight(Color.WHITE, 60, 56)) rights |= 2;
+		if (hasCastlingRight(Color.BLACK, 4, 7)) rights |= 4;
+		if (hasCastlingRight(Color.BLACK, 4, 0)) rights |= 8;
+		return rights;
+	}
 
+	private boolean hasCastlingRight(Color color, int kingSquare, int rookSquare) {
+		ChessPiece king = board.piece(kingSquare);
+		ChessPiece rook = board.piece(rookSquare);
+		return king != null && king.getType() == PieceType.KING && king.getColor() == color && king.getMoveCount() == 0
+				&& rook != null && rook.getType() == PieceType.ROOK && rook.getColor() == color && rook.getMoveCount() == 0;
 	}
 
-	private boolean testCheck(Color color) { // Teste para saber se o REI esta em checkmate
-		Position kingPosition = king(color).getChessPosition().toPosition(); // Pegando a posiçao do REI em formato de
-																				// matriz
-		List<Piece> opponentPieces = piecesOnTheBoard.stream()
-				.filter(x -> ((ChessPiece) x).getColor() == opponent(color)).collect(Collectors.toList());
-		//
-		for (Piece p : opponentPieces) {
-			boolean[][] mat = p.possibleMoves(); // Matriz de movimentos possiveis da peça passada como argumento
-			if (mat[kingPosition.getRow()][kingPosition.getColumn()]) {
-				// Se na matriz de movimentos possiveis a posição do REI for encontrada, o rei
-				// esta em checkmate
-				return true;
+	// Coluna do en passant, só quando algum peão do jogador da vez pode de fato capturar
+	private int computeEnPassantColumn() {
+		if (enPassantVulnerable == null || enPassantVulnerable.getColor() == currentPlayer) {
+			return -1;
+		}
+		int square = enPassantVulnerable.getSquare();
+		int column = square % 8;
+		long neighbours = 0;
+		if (column > 0) {
+			neighbours |= 1L << (square - 1);
+		}
+		if (column < 7) {
+			neighbours |= 1L << (square + 1);
+		}
+		return ((board.getPieces(ChessBoard.PAWN, currentPlayer) & neighbours) != 0) ? column : -1;
+	}
+
+	// Parte do hash que fica no ChessMatch, calculada do zero na montagem da posição
+	private void initHashState() {
+		castlingRights = computeCastlingRights();
+		enPassantColumn = computeEnPassantColumn();
+		hash = (currentPlayer == Color.BLACK) ? Zobrist.blackToMove() : 0;
+		hash ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantColumn);
+	}
+
+	// Hash completo calculado do zero, para conferir a versão incremental
+	long recomputeHash() {
+		long h = (currentPlayer == Color.BLACK) ? Zobrist.blackToMove() : 0;
+		for (int group = 0; group < 12; group++) {
+			for (int i = 0; i < piecesOnTheBoard.count(group); i++) {
+				ChessPiece piece = piecesOnTheBoard.get(group, i);
+				h ^= Zobrist.piece(piece.getColor(), group % 6, piece.getSquare());
 			}
 		}
-		return false;
+		return h ^ Zobrist.castling(computeCastlingRights()) ^ Zobrist.enPassant(computeEnPassantColumn());
 	}
 
-	private boolean testCheckMate(Color color) { // Teste para saber se existe algum movimento possível para sair do check
+	private Color opponent(Color color) { // Definindo qual a cor do oponente
+		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	}
+
+	private ChessPiece king(Color color) { // Rei da determinada cor, direto do grupo da lista de peças
+		if (piecesOnTheBoard.count(color, ChessBoard.KING) == 0) {
+			throw new IllegalStateException("There is no " + color + " King on the board");
+		}
+		return piecesOnTheBoard.get(color, ChessBoard.KING, 0);
+	}
+
+	// testCheck e testCheckMate são visiveis no pacote para os benchmarks em bench/
+	boolean testCheck(Color color) { // Teste para saber se o REI esta em check
+		// Consulta reversa: partindo da casa do REI, procura peças adversarias que a atacam
+		return board.isSquareAttacked(kingSquares[color.ordinal()], opponent(color));
+	}
+
+	private void updateCheckInfo(Color color) {
+		int kingSquare = kingSquares[color.ordinal()];
+		checkers = board.attackersTo(kingSquare, opponent(color), board.getOccupied());
+		pinned = board.pinnedPieces(kingSquare, color);
+	}
+
+	boolean testCheckMate(Color color) { // Teste para saber se existe algum movimento possível para sair do check
 		if (!testCheck(color)) {
 			return false;
 		}
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
-		for (Piece p : list) {
-			boolean[][] mat = p.possibleMoves();
-			for (int i = 0; i < board.getRows(); i++) { // Percorrendo linhas
-				for (int j = 0; j < board.getColumns(); j++) { // Percorrendo colunas
-					if (mat[i][j]) { // Testando se o movimento é possível
-						Position source = ((ChessPiece) p).getChessPosition().toPosition(); // Posição origem
-						Position target = new Position(i, j); // Posição de destino
-						Piece capturedPiece = makeMove(source, target); // Movimento de sair da origem e ir para destino
-						boolean testCheck = testCheck(color); // testando se ainda está em check
-						undoMove(source, target, capturedPiece); // desfazendo o movimento teste
-						if (!testCheck) { // Se não estava em check, significa que o movimento realizado tirou de check
-							return false;
-						}
+		return legalMoves(color, moveBuffer()) == 0; // Em check e sem nenhuma jogada legal
+	}
+
+	private void placeNewPiece(char column, int row, ChessPiece piece) {
+		placeNewPiece(piece, ChessPosition.valueOf(column, row).toSquare());
+	}
+
+	private void placeNewPiece(ChessPiece piece, int square) {
+		board.placePiece(piece, square);
+		piecesOnTheBoard.add(piece);
+		if (piece.getType() == PieceType.KING) {
+			kingSquares[piece.getColor().ordinal()] = piece.getSquare();
+		}
+	}
+
+	private void loadFen(String fen) {
+		String[] fields = FEN_SEPARATOR.split(fen.trim());
+		if (fields.length < 4 || fields.length > 6 || !(fields[1].equals("w") || fields[1].equals("b")) || !FEN_CASTLING.matcher(fields[2]).matches()
+				|| !FEN_EN_PASSANT.matcher(fields[3]).matches()) {
+			throw new ChessException("Invalid FEN: " + fen);
+		}
+
+		// Colocação das peças, da linha 8 para a linha 1
+		String[] rows = fields[0].split("/");
+		if (rows.length != 8) {
+			throw new ChessException("Invalid FEN: " + fen);
+		}
+		for (int i = 0; i < 8; i++) {
+			int column = 0;
+			boolean empty = false;
+			for (char c : rows[i].toCharArray()) {
+				if (c >= '1' && c <= '8') { // Casas vazias: um unico digito de 1 a 8 entre duas peças
+					if (empty) {
+						throw new ChessException("Invalid FEN: " + fen);
 					}
+					column += c - '0';
+					empty = true;
+					continue;
+				}
+				empty = false;
+				if (column > 7) {
+					throw new ChessException("Invalid FEN: " + fen);
+				}
+				Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+				PieceType type = PieceType.fromLetter(c);
+				if (type == null) {
+					throw new ChessException("Invalid FEN: " + fen);
+				}
+				if (type == PieceType.PAWN && (i == 0 || i == 7)) {
+					throw new ChessException("Invalid FEN: pawn on the first or last rank");
+				}
+				placeNewPiece((char) ('a' + column), 8 - i, newPiece(type, color));
+				column++;
+			}
+			if (column != 8) {
+				throw new ChessException("Invalid FEN: " + fen);
+			}
+		}
+		if (piecesOnTheBoard.count(Color.WHITE, ChessBoard.KING) != 1 || piecesOnTheBoard.count(Color.BLACK, ChessBoard.KING) != 1) {
+			throw new ChessException("Invalid FEN: exactly one king per side is required");
+		}
+
+		currentPlayer = fields[1].equals("b") ? Color.BLACK : Color.WHITE;
+		if (board.isSquareAttacked(kingSquares[opponent(currentPlayer).ordinal()], currentPlayer)) {
+			// O rei de quem acabou de jogar não pode ficar em check: o jogador da vez o capturaria
+			throw new ChessException("Invalid FEN: the side not to move is in check");
+		}
+		try { // Relogios são opcionais: sem eles, meio-lance 0 e lance 1
+			if (fields.length > 4) {
+				halfmoveClock = Integer.parseInt(fields[4]);
+			}
+			if (fields.length > 5) {
+				turn = 2 * (Integer.parseInt(fields[5]) - 1) + 1;
+			}
+		} catch (NumberFormatException e) {
+			throw new ChessException("Invalid FEN: " + fen);
+		}
+		if (halfmoveClock < 0 || turn < 1) {
+			throw new ChessException("Invalid FEN: " + fen);
+		}
+		if (currentPlayer == Color.BLACK) {
+			turn++;
+		}
+
+		// Direitos de roque viram contagem de movimentos: rei e torre com direito ficam com zero
+		String castling = fields[2];
+		for (int group = 0; group < 12; group++) {
+			for (int i = 0; i < piecesOnTheBoard.count(group); i++) {
+				ChessPiece piece = piecesOnTheBoard.get(group, i);
+				int square = piece.getSquare();
+				boolean white = piece.getColor() == Color.WHITE;
+				boolean unmoved;
+				if (piece.getType() == PieceType.PAWN) {
+					unmoved = square / 8 == (white ? 6 : 1);
+				} else if (piece.getType() == PieceType.KING) {
+					unmoved = square == (white ? 60 : 4)
+							&& (castling.indexOf(white ? 'K' : 'k') >= 0 || castling.indexOf(white ? 'Q' : 'q') >= 0);
+				} else if (piece.getType() == PieceType.ROOK) {
+					unmoved = (square == (white ? 63 : 7) && castling.indexOf(white ? 'K' : 'k') >= 0)
+							|| (square == (white ? 56 : 0) && castling.indexOf(white ? 'Q' : 'q') >= 0);
+				} else {
+					unmoved = true;
 				}
+				if (!unmoved) {
+					piece.increaseMoveCount();
+				}
+			}
+		}
 
+		// Casa de en passant: o peão vulneravel esta uma casa adiante dela
+		if (!fields[3].equals("-")) {
+			ChessPosition epSquare = ChessPosition.valueOf(fields[3].charAt(0), fields[3].charAt(1) - '0');
+			int row = (currentPlayer == Color.WHITE) ? epSquare.getRow() - 1 : epSquare.getRow() + 1;
+			ChessPiece pawn = board.piece(ChessPosition.valueOf(epSquare.getColumn(), row).toSquare());
+			if (pawn != null && pawn.getType() == PieceType.PAWN && pawn.getColor() != currentPlayer) {
+				enPassantVulnerable = pawn;
 			}
 		}
-		return true;
+
+		initHashState();
+		updateCheckInfo(currentPlayer);
+		check = checkers != 0;
+		checkMate = testCheckMate(currentPlayer);
+		if (checkMate) {
+			previousTurn(); // Como depois de performChessMove: no checkMate o jogador da vez é o vencedor
+		}
+		pushHistory();
+		updateDrawReason();
 	}
 
-	private void placeNewPiece(char column, int row, ChessPiece piece) {
-		board.placePiece(piece, new ChessPosition(column, row).toPosition());
-		piecesOnTheBoard.add(piece);
+	// Posição atual em notação FEN: peças, vez, roque (das contagens de movimento de rei e torres),
+	// casa de en passant, meios-lances e numero do lance. É o inverso de new ChessMatch(String).
+	public String toFen() {
+		StringBuilder sb = new StringBuilder(90);
+		for (int row = 0; row < 8; row++) {
+			int empty = 0;
+			for (int column = 0; column < 8; column++) {
+				ChessPiece piece = board.piece(ChessBoard.square(row, column));
+				if (piece == null) {
+					empty++;
+					continue;
+				}
+				if (empty > 0) {
+					sb.append(empty);
+					empty = 0;
+				}
+				char c = piece.getType().getLetter();
+				sb.append((piece.getColor() == Color.WHITE) ? c : Character.toLowerCase(c));
+			}
+			if (empty > 0) {
+				sb.append(empty);
+			}
+			if (row < 7) {
+				sb.append('/');
+			}
+		}
+
+		// No checkMate a vez não passa para o perdedor, mas no FEN é ele quem esta para jogar
+		Color toMove = checkMate ? opponent(currentPlayer) : currentPlayer;
+		int fenTurn = checkMate ? turn + 1 : turn;
+		sb.append(' ').append((toMove == Color.WHITE) ? 'w' : 'b').append(' ');
+
+		int rights = computeCastlingRights();
+		if (rights == 0) {
+			sb.append('-');
+		} else {
+			for (int i = 0; i < 4; i++) {
+				if ((rights & (1 << i)) != 0) {
+					sb.append("KQkq".charAt(i));
+				}
+			}
+		}
+
+		sb.append(' ');
+		if (enPassantVulnerable == null) {
+			sb.append('-');
+		} else { // A casa pulada pelo peão, atras dele
+			int square = enPassantVulnerable.getSquare() + ((enPassantVulnerable.getColor() == Color.WHITE) ? 8 : -8);
+			sb.append(Move.squareName(square));
+		}
+		sb.append(' ').append(halfmoveClock).append(' ').append((fenTurn + 1) / 2);
+		return sb.toString();
 	}
 
 	private void initialSetup() {
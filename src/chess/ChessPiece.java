@@ -7,16 +7,28 @@ import boardgame.Position;
 public abstract class ChessPiece extends Piece  {
 
 	private Color color;
+	private final PieceType type;
 	private int moveCount;
+	int listSlot = -1; // Posição no grupo da PieceList da partida, -1 fora dela
 
-	public ChessPiece(Board board, Color color) {
+	public ChessPiece(Board board, Color color, PieceType type) {
 		super(board);
 		this.color = color;
+		this.type = type;
+	}
+
+	@Override
+	protected ChessBoard getBoard() { // Peças de xadrez sempre estão num ChessBoard
+		return (ChessBoard) super.getBoard();
 	}
 
 	public Color getColor() {
 		return color;
 	}
+
+	public PieceType getType() {
+		return type;
+	}
 	
 	public void increaseMoveCount() {
 		moveCount++;
@@ -25,19 +37,66 @@ public abstract class ChessPiece extends Piece  {
 	public void decreaseMoveCount() {
 		moveCount--;
 	}
+	void setMoveCount(int moveCount) { // Usado ao copiar a partida
+		this.moveCount = moveCount;
+	}
+
 	public int getMoveCount() {
 		return moveCount;
 	}
 	
-	public ChessPosition getChessPosition() {
-		return ChessPosition.fromPosition(position);
+	public ChessPosition getChessPosition() { // Da tabela do ChessPosition, sem alocar
+		return ChessPosition.fromSquare(getIndex());
 	}
 	
-	protected boolean isThereOpponentPiece(Position position) {
-		ChessPiece p = (ChessPiece)getBoard().piece(position);
-		return p != null && p.getColor() != color;
+	protected boolean isThereOpponentPiece(int square) { // Teste direto no bitboard da cor adversaria
+		long opponentPieces = getBoard().getOccupied() & ~getBoard().getPieces(color);
+		return (opponentPieces & (1L << square)) != 0;
 	}
-	
-	
-	
-}
\ No newline at end of file
+
+	public int getSquare() { // Casa do ChessBoard (a8 = 0, h1 = 63); o indice do Board, que tem 8 colunas
+		return getIndex();
+	}
+
+	// Destinos pseudo-legais da peça como bitboard; é a base de todas as outras consultas de movimento
+	public abstract long possibleMovesBitboard();
+
+	@Override
+	public boolean[][] possibleMoves() {
+		return toMatrix(possibleMovesBitboard());
+	}
+
+	@Override
+	public boolean possibleMove(Position position) {
+		return (possibleMovesBitboard() & (1L << ChessBoard.square(position))) != 0;
+	}
+
+	@Override
+	public boolean isThereAnyPossibleMove() {
+		return possibleMovesBitboard() != 0;
+	}
+
+	// Escreve as jogadas compactadas (ver Move) a partir da posição count do buffer e retorna o novo total
+	public int generateMoves(int[] moves, int count) {
+		int from = getSquare();
+		long targets = possibleMovesBitboard();
+		long opponentPieces = getBoard().getOccupied() & ~getBoard().getPieces(color);
+		while (targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			int flags = ((opponentPieces >>> to) & 1L) != 0 ? Move.CAPTURE : 0;
+			moves[count++] = Move.encode(from, to, flags, 0);
+			targets &= targets - 1;
+		}
+		return count;
+	}
+
+	protected boolean[][] toMatrix(long moves) { // Convertendo o bitboard de destinos para a matriz de movimentos
+		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
+		while (moves != 0) {
+			int square = Long.numberOfTrailingZeros(moves);
+			mat[square / 8][square % 8] = true;
+			moves &= moves - 1;
+		}
+		return mat;
+	}
+}
@@ -2,10 +2,18 @@ package chess;
 
 import boardgame.Position;
 
-public class ChessPosition {
+public class ChessPosition { // Imutavel; as 64 casas ficam numa tabela unica (ver valueOf e fromSquare)
+
+	private static final ChessPosition[] SQUARES = new ChessPosition[64]; // Indice = casa do ChessBoard (a8 = 0)
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			SQUARES[square] = new ChessPosition((char) ('a' + square % 8), 8 - square / 8);
+		}
+	}
 	
-	private char column;
-	private int row;
+	private final char column;
+	private final int row;
 	
 	public ChessPosition(char column, int row) {
 		if (column < 'a' || column > 'h' || row <1 || row > 8) {
@@ -15,6 +23,13 @@ public class ChessPosition {
 		this.row = row;
 	}
 
+	public static ChessPosition valueOf(char column, int row) { // Mesma validação do construtor, sem alocar
+		if (column < 'a' || column > 'h' || row <1 || row > 8) {
+			throw new ChessException("Error instantiating ChessPosition. Valid valures are from a1 to h8.");
+		}
+		return SQUARES[(8 - row) * 8 + (column - 'a')];
+	}
+
 	public char getColumn() {
 		return column;
 	}
@@ -27,12 +42,34 @@ public class ChessPosition {
 		return new Position(8 - row, column - 'a');
 	}
 
+	public static ChessPosition fromSquare(int square) { // Casa do ChessBoard (linha * 8 + coluna) para xadrez
+		return SQUARES[square];
+	}
+
+	public int toSquare() {
+		return (8 - row) * 8 + (column - 'a');
+	}
+
 	protected static ChessPosition fromPosition(Position position) { //Converte posição de matriz, para xadrex.
-		return new ChessPosition((char) ('a' + position.getColumn()), 8 - position.getRow());
+		return SQUARES[position.getRow() * 8 + position.getColumn()];
+	}
+
+	@Override
+	public boolean equals(Object obj) { // Posições criadas pelo construtor valem o mesmo que as da tabela
+		if (!(obj instanceof ChessPosition)) {
+			return false;
+		}
+		ChessPosition other = (ChessPosition) obj;
+		return column == other.column && row == other.row;
+	}
+
+	@Override
+	public int hashCode() {
+		return toSquare();
 	}
 	
 	@Override
 	public String toString() {
 		return "" + column + row;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package chess;
+
+public final class Move {
+
+	// Jogada compactada num int:
+	// bits 0-5 origem, bits 6-11 destino, bits 12-15 flags, bits 16-18 peça da promoção (PieceType.ordinal())
+	public static final int CAPTURE = 1;
+	public static final int DOUBLE_PUSH = 2;
+	public static final int EN_PASSANT = 4;
+	public static final int CASTLING = 8;
+
+	public static final int NONE = 0;
+
+	private Move() {
+	}
+
+	public static int encode(int from, int to, int flags, int promotion) {
+		return from | (to << 6) | (flags << 12) | (promotion << 16);
+	}
+
+	public static int getFrom(int move) {
+		return move & 0x3F;
+	}
+
+	public static int getTo(int move) {
+		return (move >>> 6) & 0x3F;
+	}
+
+	public static int getFlags(int move) {
+		return (move >>> 12) & 0xF;
+	}
+
+	public static int getPromotion(int move) { // Zero quando a jogada não é promoção
+		return (move >>> 16) & 0x7;
+	}
+
+	public static PieceType getPromotionType(int move) { // Nulo quando a jogada não é promoção
+		int promotion = getPromotion(move);
+		return (promotion == 0) ? null : PieceType.of(promotion);
+	}
+
+	public static int encode(int from, int to, int flags, PieceType promotion) {
+		return encode(from, to, flags, (promotion == null) ? 0 : promotion.ordinal());
+	}
+
+	// Versão de 16 bits para arquivos (partidas, livro de aberturas): bits 0-5 origem, 6-11 destino,
+	// 12-14 promoção. Os flags ficam de fora; performChessMove(int) e a geração de jogadas os recalculam.
+	public static int toShort(int move) {
+		return getFrom(move) | (getTo(move) << 6) | (getPromotion(move) << 12);
+	}
+
+	public static int fromShort(int move) {
+		return encode(move & 0x3F, (move >>> 6) & 0x3F, 0, (move >>> 12) & 0x7);
+	}
+
+	public static boolean isCapture(int move) {
+		return (move & (CAPTURE << 12)) != 0;
+	}
+
+	public static String squareName(int square) {
+		return "" + (char) ('a' + square % 8) + (8 - square / 8);
+	}
+
+	public static String toString(int move) { // Notação de coordenadas, ex: e2e4, e7e8q
+		String s = squareName(getFrom(move)) + squareName(getTo(move));
+		PieceType promotion = getPromotionType(move);
+		return (promotion == null) ? s : s + Character.toLowerCase(promotion.getLetter());
+	}
+}
@@ -0,0 +1,71 @@
+package chess;
+
+// Peças no tabuleiro separadas em 12 grupos, um por cor e tipo (grupo = cor * 6 + tipo do ChessBoard).
+// Cada peça guarda a sua posição dentro do grupo, então add e remove são O(1): a remoção cobre o buraco
+// com a ultima peça do grupo. Percorrer uma cor ou um tipo é só um laço sobre arrays, sem alocar.
+// Os grupos ficam lado a lado num unico vetor, stride posições cada: uma alocação por partida, não doze.
+final class PieceList {
+
+	private ChessPiece[] pieces = new ChessPiece[12 * 10]; // 2 peças + 8 promoções por grupo
+	private int stride = 10;
+	private final int[] counts = new int[12];
+	private int size;
+
+	static int group(Color color, int type) {
+		return color.ordinal() * 6 + type;
+	}
+
+	int size() {
+		return size;
+	}
+
+	int count(int group) {
+		return counts[group];
+	}
+
+	int count(Color color, int type) {
+		return counts[group(color, type)];
+	}
+
+	ChessPiece get(int group, int index) {
+		return pieces[group * stride + index];
+	}
+
+	ChessPiece get(Color color, int type, int index) {
+		return pieces[group(color, type) * stride + index];
+	}
+
+	void add(ChessPiece piece) {
+		int group = group(piece.getColor(), piece.getType().ordinal());
+		if (counts[group] == stride) { // Só com posições fora do normal (FEN com peças demais)
+			grow();
+		}
+		piece.listSlot = counts[group];
+		pieces[group * stride + counts[group]++] = piece;
+		size++;
+	}
+
+	private void grow() { // Dobra o espaço de todos os grupos, mudando cada um para a sua nova posição
+		ChessPiece[] grown = new ChessPiece[pieces.length * 2];
+		for (int group = 0; group < 12; group++) {
+			System.arraycopy(pieces, group * stride, grown, group * stride * 2, counts[group]);
+		}
+		pieces = grown;
+		stride *= 2;
+	}
+
+	void remove(ChessPiece piece) {
+		int group = group(piece.getColor(), piece.getType().ordinal());
+		int start = group * stride;
+		int slot = piece.listSlot;
+		if (slot < 0 || slot >= counts[group] || pieces[start + slot] != piece) {
+			throw new IllegalStateException("Piece is not on the list: " + piece);
+		}
+		ChessPiece last = pieces[start + --counts[group]];
+		pieces[start + slot] = last;
+		last.listSlot = slot;
+		pieces[start + counts[group]] = null;
+		piece.listSlot = -1;
+		size--;
+	}
+}
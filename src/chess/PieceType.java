@@ -0,0 +1,50 @@
+package chess;
+
+public enum PieceType {
+	// Mesma ordem dos tipos do ChessBoard: ordinal() é o indice dos bitboards e o campo de promoção do Move
+	PAWN('P'),
+	KNIGHT('N'),
+	BISHOP('B'),
+	ROOK('R'),
+	QUEEN('Q'),
+	KING('K');
+
+	private static final PieceType[] VALUES = values(); // values() copia o array a cada chamada
+
+	private final char letter;
+
+	PieceType(char letter) {
+		this.letter = letter;
+	}
+
+	public char getLetter() { // Letra maiuscula, como no FEN e no SAN
+		return letter;
+	}
+
+	public boolean isPromotion() { // Tipos validos para a promoção do peão
+		return this == KNIGHT || this == BISHOP || this == ROOK || this == QUEEN;
+	}
+
+	public static PieceType of(int type) { // Tipo do ChessBoard (0 a 5)
+		return VALUES[type];
+	}
+
+	public static PieceType fromLetter(char letter) { // Maiuscula ou minuscula; null se não for peça
+		switch (Character.toUpperCase(letter)) {
+		case 'P':
+			return PAWN;
+		case 'N':
+			return KNIGHT;
+		case 'B':
+			return BISHOP;
+		case 'R':
+			return ROOK;
+		case 'Q':
+			return QUEEN;
+		case 'K':
+			return KING;
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+public final class Zobrist {
+
+	// Chaves aleatorias de 64 bits; o hash de uma posição é o XOR das chaves de tudo que ela contem.
+	// Semente fixa: o mesmo hash em toda execução e em todas as maquinas.
+	private static final long[][] PIECES = new long[12][64]; // [cor * 6 + tipo][casa]
+	private static final long[] CASTLING = new long[16];
+	private static final long[] EN_PASSANT = new long[8];
+	private static final long BLACK_TO_MOVE;
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x5A0B215C0FFEEL);
+		for (long[] keys : PIECES) {
+			for (int square = 0; square < 64; square++) {
+				keys[square] = random.nextLong();
+			}
+		}
+		for (int i = 1; i < CASTLING.length; i++) { // Sem direito de roque a chave é zero
+			CASTLING[i] = random.nextLong();
+		}
+		for (int i = 0; i < EN_PASSANT.length; i++) {
+			EN_PASSANT[i] = random.nextLong();
+		}
+		BLACK_TO_MOVE = random.nextLong();
+	}
+
+	private Zobrist() {
+	}
+
+	public static long piece(Color color, int type, int square) {
+		return PIECES[color.ordinal() * 6 + type][square];
+	}
+
+	public static long castling(int rights) {
+		return CASTLING[rights];
+	}
+
+	public static long enPassant(int column) { // Coluna -1: sem en passant
+		return (column < 0) ? 0 : EN_PASSANT[column];
+	}
+
+	public static long blackToMove() {
+		return BLACK_TO_MOVE;
+	}
+}
@@ -0,0 +1,38 @@
+package chess.archive;
+
+// Formato binario de partidas (little-endian):
+//
+//   Cabeçalho, 32 bytes: magic "CGA1", versão (int), numero de partidas (long), posição do indice (long), reservado (long)
+//   Partidas, uma apos a outra: resultado (byte), flags (byte; bit 0 = tem FEN), meios-lances (u16),
+//       [tamanho do FEN (u16) + FEN em ASCII], e um u16 por lance
+//   Indice, no fim do arquivo: a posição (long) de cada partida
+//
+// Lance de 16 bits: Move.toShort(), sem os flags; performChessMove(int) só usa origem, destino e promoção.
+final class ArchiveFormat {
+
+	static final int MAGIC = 0x31414743; // "CGA1" em little-endian
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 32;
+	static final int FLAG_FEN = 1;
+	static final int MAX_PLIES = 0xFFFF;
+	static final int MAX_FEN_LENGTH = 128;
+	static final int MAX_GAME_SIZE = 6 + MAX_FEN_LENGTH + MAX_PLIES * 2; // Maior registro de partida possivel
+
+	private static final String[] RESULTS = { "*", "1-0", "0-1", "1/2-1/2" };
+
+	private ArchiveFormat() {
+	}
+
+	static int resultCode(String result) {
+		for (int i = 0; i < RESULTS.length; i++) {
+			if (RESULTS[i].equals(result)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Invalid game result: " + result);
+	}
+
+	static String result(int code) {
+		return RESULTS[code & 0x3];
+	}
+}
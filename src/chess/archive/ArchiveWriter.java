@@ -0,0 +1,102 @@
+package chess.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import chess.Move;
+
+// Grava partidas no formato de ArchiveFormat. As partidas vão direto para o arquivo por um buffer fixo;
+// só o indice (8 bytes por partida) fica em memoria até o close(), que o grava e completa o cabeçalho.
+public class ArchiveWriter implements Closeable {
+
+	public static final int MAX_PLIES = ArchiveFormat.MAX_PLIES;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+	private long position = ArchiveFormat.HEADER_SIZE; // Posição no arquivo do inicio do buffer
+	private long[] index = new long[1024];
+	private long gameCount;
+
+	public ArchiveWriter(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+		channel.position(ArchiveFormat.HEADER_SIZE); // O cabeçalho só é escrito no close()
+	}
+
+	public long getGameCount() {
+		return gameCount;
+	}
+
+	// startFen nulo: posição inicial. moves são jogadas compactadas (ver Move); result no formato PGN.
+	public void write(String startFen, int[] moves, int plies, String result) throws IOException {
+		if (plies > ArchiveFormat.MAX_PLIES) {
+			throw new IllegalArgumentException("Game too long for the archive: " + plies + " plies");
+		}
+		byte[] fen = (startFen == null) ? null : startFen.getBytes(StandardCharsets.US_ASCII);
+		if (fen != null && fen.length > ArchiveFormat.MAX_FEN_LENGTH) {
+			throw new IllegalArgumentException("FEN too long for the archive: " + startFen);
+		}
+		int resultCode = ArchiveFormat.resultCode(result);
+
+		if (gameCount == index.length) {
+			index = Arrays.copyOf(index, index.length * 2);
+		}
+		index[(int) gameCount++] = position + buffer.position();
+
+		ensure(4);
+		buffer.put((byte) resultCode);
+		buffer.put((byte) ((fen == null) ? 0 : ArchiveFormat.FLAG_FEN));
+		buffer.putShort((short) plies);
+		if (fen != null) {
+			ensure(2 + fen.length);
+			buffer.putShort((short) fen.length);
+			buffer.put(fen);
+		}
+		for (int i = 0; i < plies; i++) {
+			ensure(2);
+			buffer.putShort((short) Move.toShort(moves[i]));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			long indexOffset = position + buffer.position();
+			for (int i = 0; i < gameCount; i++) {
+				ensure(8);
+				buffer.putLong(index[i]);
+			}
+			flush();
+
+			ByteBuffer header = ByteBuffer.allocate(ArchiveFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(ArchiveFormat.MAGIC).putInt(ArchiveFormat.VERSION).putLong(gameCount).putLong(indexOffset)
+					.putLong(0).flip();
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,156 @@
+package chess.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Move;
+
+// Leitura de um arquivo de partidas (ver ArchiveFormat) mapeado em memoria. Um MappedByteBuffer vai até
+// 2 GB, então o arquivo é mapeado em janelas de 1 GB que se sobrepõem pelo tamanho da maior partida: todo
+// registro cabe inteiro na janela onde começa. Só são usadas leituras absolutas, que não mexem na posição
+// dos buffers, então a mesma instancia pode ser lida por varias threads, cada uma com sua faixa do indice.
+public class GameArchive implements Closeable {
+
+	public static final int MAX_PLIES = ArchiveFormat.MAX_PLIES; // Tamanho que basta para o array de getMoves()
+
+	private static final int WINDOW_SHIFT = 30;
+	private static final long WINDOW_SIZE = 1L << WINDOW_SHIFT;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer[] windows;
+	private final long size;
+	private final long indexOffset;
+
+	private GameArchive(FileChannel channel) throws IOException {
+		this.channel = channel;
+		long length = channel.size();
+		if (length < ArchiveFormat.HEADER_SIZE) {
+			throw new ChessException("Not a game archive: file too short");
+		}
+		windows = new MappedByteBuffer[(int) ((length - 1) >>> WINDOW_SHIFT) + 1];
+		for (int i = 0; i < windows.length; i++) {
+			long start = (long) i << WINDOW_SHIFT;
+			long end = Math.min(length, start + WINDOW_SIZE + ArchiveFormat.MAX_GAME_SIZE);
+			windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			windows[i].order(ByteOrder.LITTLE_ENDIAN);
+		}
+		if (windows[0].getInt(0) != ArchiveFormat.MAGIC) {
+			throw new ChessException("Not a game archive: bad magic number");
+		}
+		if (windows[0].getInt(4) != ArchiveFormat.VERSION) {
+			throw new ChessException("Unsupported game archive version: " + windows[0].getInt(4));
+		}
+		size = windows[0].getLong(8);
+		indexOffset = windows[0].getLong(16);
+		if (size < 0 || indexOffset < ArchiveFormat.HEADER_SIZE || indexOffset + size * 8 != length) {
+			throw new ChessException("Corrupt game archive: inconsistent index");
+		}
+	}
+
+	public static GameArchive open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return new GameArchive(channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public String getResult(long n) {
+		return ArchiveFormat.result(getByte(offset(n)));
+	}
+
+	// FEN da posição inicial, ou null quando a partida começa da posição padrão
+	public String getStartFen(long n) {
+		long offset = offset(n);
+		if ((getByte(offset + 1) & ArchiveFormat.FLAG_FEN) == 0) {
+			return null;
+		}
+		MappedByteBuffer window = window(offset);
+		int at = local(offset) + 4;
+		byte[] fen = new byte[window.getShort(at) & 0xFFFF];
+		for (int i = 0; i < fen.length; i++) {
+			fen[i] = window.get(at + 2 + i);
+		}
+		return new String(fen, StandardCharsets.US_ASCII);
+	}
+
+	public int getPlies(long n) {
+		long offset = offset(n);
+		return window(offset).getShort(local(offset) + 2) & 0xFFFF;
+	}
+
+	// Lances da partida n, no formato do Move, em moves (que precisa ter pelo menos getPlies(n) posições)
+	public int getMoves(long n, int[] moves) {
+		long offset = offset(n);
+		MappedByteBuffer window = window(offset);
+		int at = local(offset);
+		int plies = window.getShort(at + 2) & 0xFFFF;
+		at += 4;
+		if ((window.get(at - 3) & ArchiveFormat.FLAG_FEN) != 0) {
+			at += 2 + (window.getShort(at) & 0xFFFF);
+		}
+		for (int i = 0; i < plies; i++) {
+			moves[i] = Move.fromShort(window.getShort(at + i * 2) & 0xFFFF);
+		}
+		return plies;
+	}
+
+	// Reproduz a partida n pela performChessMove, validando cada lance; retorna a partida na posição final
+	public ChessMatch replay(long n) {
+		return replay(n, new int[getPlies(n)]);
+	}
+
+	// Como replay(long), reaproveitando o array de lances do chamador
+	public ChessMatch replay(long n, int[] moves) {
+		String fen = getStartFen(n);
+		ChessMatch chessMatch = (fen == null) ? new ChessMatch() : new ChessMatch(fen);
+		int plies = getMoves(n, moves);
+		for (int i = 0; i < plies; i++) {
+			try {
+				chessMatch.performChessMove(moves[i]);
+			} catch (ChessException e) {
+				throw new ChessException("Game " + n + ", ply " + (i + 1) + ": " + e.getMessage());
+			}
+		}
+		return chessMatch;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close(); // Os mapeamentos são liberados pelo GC
+	}
+
+	private long offset(long n) {
+		if (n < 0 || n >= size) {
+			throw new IndexOutOfBoundsException("Game " + n + " of " + size);
+		}
+		long entry = indexOffset + n * 8;
+		return window(entry).getLong(local(entry));
+	}
+
+	private int getByte(long offset) {
+		return window(offset).get(local(offset)) & 0xFF;
+	}
+
+	private MappedByteBuffer window(long offset) {
+		return windows[(int) (offset >>> WINDOW_SHIFT)];
+	}
+
+	private static int local(long offset) {
+		return (int) (offset & (WINDOW_SIZE - 1));
+	}
+}
@@ -0,0 +1,115 @@
+package chess.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.Move;
+
+// Monta um livro de aberturas (ver OpeningBook) a partir de partidas já validadas. Cada lance dos primeiros
+// maxPlies meios-lances soma ao seu peso 2 pontos se quem jogou venceu, 1 no empate ou sem resultado e 0 na
+// derrota; lances com peso zero ou jogados menos de minCount vezes ficam de fora do arquivo.
+public class BookBuilder {
+
+	private final int maxPlies;
+	private final Map<Long, Map<Integer, long[]>> positions = new HashMap<>(); // hash -> lance -> { peso, vezes }
+	private long games;
+
+	public BookBuilder(int maxPlies) {
+		this.maxPlies = maxPlies;
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public int getPositions() {
+		return positions.size();
+	}
+
+	// startFen nulo: posição inicial. moves são as jogadas já resolvidas (ver PgnGame.replay(int[]))
+	public void add(String startFen, int[] moves, int plies, String result) {
+		ChessMatch chessMatch = (startFen == null) ? new ChessMatch() : new ChessMatch(startFen);
+		int count = Math.min(plies, maxPlies);
+		for (int i = 0; i < count; i++) {
+			Color mover = chessMatch.getCurrentPlayer();
+			int score = 1;
+			if (result.equals("1-0")) {
+				score = (mover == Color.WHITE) ? 2 : 0;
+			} else if (result.equals("0-1")) {
+				score = (mover == Color.BLACK) ? 2 : 0;
+			}
+			long[] stats = positions.computeIfAbsent(chessMatch.getHash(), hash -> new HashMap<>(4))
+					.computeIfAbsent(Move.toShort(moves[i]), move -> new long[2]);
+			stats[0] += score;
+			stats[1]++;
+			chessMatch.performChessMove(moves[i]);
+		}
+		games++;
+	}
+
+	// Grava o livro ordenado; retorna o numero de entradas gravadas
+	public long write(Path path, int minCount) throws IOException {
+		long[] keys = new long[positions.size()];
+		int k = 0;
+		for (long key : positions.keySet()) {
+			keys[k++] = key ^ Long.MIN_VALUE; // Troca o bit de sinal: a ordem com sinal vira a ordem sem sinal
+		}
+		Arrays.sort(keys);
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.position(OpeningBook.HEADER_SIZE); // O cabeçalho é completado no fim, com o total
+			long entries = 0;
+			for (long sortedKey : keys) {
+				long key = sortedKey ^ Long.MIN_VALUE;
+				Map<Integer, long[]> moves = positions.get(key);
+				long maxWeight = 0;
+				for (long[] stats : moves.values()) {
+					maxWeight = Math.max(maxWeight, stats[0]);
+				}
+				long scale = Math.max(1, (maxWeight + 0xFFFE) / 0xFFFF); // Pesos da posição reduzidos para caber em 16 bits
+				Integer[] order = moves.keySet().toArray(new Integer[0]);
+				Arrays.sort(order, (a, b) -> Long.compare(moves.get(b)[0], moves.get(a)[0]));
+				for (int move : order) {
+					long[] stats = moves.get(move);
+					if (stats[0] == 0 || stats[1] < minCount) {
+						continue;
+					}
+					if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+						write(channel, buffer);
+					}
+					buffer.putLong(key);
+					buffer.putShort((short) move);
+					buffer.putShort((short) Math.max(1, stats[0] / scale));
+					buffer.putInt((int) Math.min(stats[1], 0xFFFFFFFFL));
+					entries++;
+				}
+			}
+			write(channel, buffer);
+
+			buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(entries).flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer, buffer.position());
+			}
+			return entries;
+		}
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
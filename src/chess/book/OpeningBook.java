@@ -0,0 +1,132 @@
+package chess.book;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+import chess.ChessException;
+import chess.Move;
+
+// Livro de aberturas mapeado em memoria, gravado pelo BookBuilder. Formato (little-endian):
+//
+//   Cabeçalho, 16 bytes: magic "CBK1", versão (int), numero de entradas (long)
+//   Entradas de 16 bytes, ordenadas pelo hash (sem sinal) e, no mesmo hash, pelo peso decrescente:
+//       hash da posição (long, ChessMatch.getHash()), lance (u16, Move.toShort()), peso (u16), vezes jogado (u32)
+//
+// A consulta é uma busca binaria direto no arquivo mapeado, sem alocar nada; as paginas são do cache do
+// sistema, então varios processos abrindo o mesmo livro dividem a mesma memoria. Só leituras absolutas,
+// então a mesma instancia pode ser consultada por varias threads.
+public class OpeningBook implements Closeable {
+
+	static final int MAGIC = 0x314B4243; // "CBK1" em little-endian
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	static final int ENTRY_SIZE = 16;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final long size;
+
+	private OpeningBook(FileChannel channel) throws IOException {
+		this.channel = channel;
+		long length = channel.size();
+		if (length < HEADER_SIZE) {
+			throw new ChessException("Not an opening book: file too short");
+		}
+		if (length > Integer.MAX_VALUE) {
+			throw new ChessException("Opening book too large: " + length + " bytes");
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt(0) != MAGIC) {
+			throw new ChessException("Not an opening book: bad magic number");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new ChessException("Unsupported opening book version: " + buffer.getInt(4));
+		}
+		size = buffer.getLong(8);
+		if (size < 0 || HEADER_SIZE + size * ENTRY_SIZE != length) {
+			throw new ChessException("Corrupt opening book: inconsistent size");
+		}
+	}
+
+	public static OpeningBook open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return new OpeningBook(channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public long size() { // Numero de entradas (posição, lance)
+		return size;
+	}
+
+	// Lances do livro para a posição, do maior peso para o menor; retorna quantos. Os lances vêm sem os
+	// flags (ver Move.fromShort()) e não são validados: use ChessMatch.bookMove() para jogar.
+	public int probe(long hash, int[] moves, int[] weights) {
+		int count = 0;
+		for (int i = find(hash); i < size && key(i) == hash && count < moves.length; i++) {
+			moves[count] = Move.fromShort(buffer.getShort(entry(i) + 8) & 0xFFFF);
+			weights[count] = weight(i);
+			count++;
+		}
+		return count;
+	}
+
+	// Um dos lances do livro para a posição, sorteado com chance proporcional ao peso; Move.NONE fora do livro
+	public int select(long hash, RandomGenerator random) {
+		int first = find(hash);
+		int total = 0;
+		for (int i = first; i < size && key(i) == hash; i++) {
+			total += weight(i);
+		}
+		if (total == 0) {
+			return Move.NONE;
+		}
+		int pick = random.nextInt(total);
+		int i = first;
+		while ((pick -= weight(i)) >= 0) {
+			i++;
+		}
+		return Move.fromShort(buffer.getShort(entry(i) + 8) & 0xFFFF);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close(); // O mapeamento é liberado pelo GC
+	}
+
+	private int find(long hash) { // Primeira entrada com hash >= o procurado
+		int low = 0;
+		int high = (int) size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (Long.compareUnsigned(key(middle), hash) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long key(int i) {
+		return buffer.getLong(entry(i));
+	}
+
+	private int weight(int i) {
+		return buffer.getShort(entry(i) + 10) & 0xFFFF;
+	}
+
+	private static int entry(int i) {
+		return HEADER_SIZE + i * ENTRY_SIZE;
+	}
+}
@@ -0,0 +1,84 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.Color;
+
+public final class Evaluator {
+
+	// Valor material por tipo do ChessBoard (peão, cavalo, bispo, torre, dama, rei)
+	public static final int[] PIECE_VALUES = { 100, 320, 330, 500, 900, 0 };
+
+	// Tabelas de posição do ponto de vista das brancas, na ordem das casas do ChessBoard (a8 = 0, h1 = 63).
+	// Para as pretas a casa é espelhada na vertical (casa ^ 56).
+	private static final int[][] PIECE_SQUARE = {
+			{ 0, 0, 0, 0, 0, 0, 0, 0,
+					50, 50, 50, 50, 50, 50, 50, 50,
+					10, 10, 20, 30, 30, 20, 10, 10,
+					5, 5, 10, 25, 25, 10, 5, 5,
+					0, 0, 0, 20, 20, 0, 0, 0,
+					5, -5, -10, 0, 0, -10, -5, 5,
+					5, 10, 10, -20, -20, 10, 10, 5,
+					0, 0, 0, 0, 0, 0, 0, 0 },
+			{ -50, -40, -30, -30, -30, -30, -40, -50,
+					-40, -20, 0, 0, 0, 0, -20, -40,
+					-30, 0, 10, 15, 15, 10, 0, -30,
+					-30, 5, 15, 20, 20, 15, 5, -30,
+					-30, 0, 15, 20, 20, 15, 0, -30,
+					-30, 5, 10, 15, 15, 10, 5, -30,
+					-40, -20, 0, 5, 5, 0, -20, -40,
+					-50, -40, -30, -30, -30, -30, -40, -50 },
+			{ -20, -10, -10, -10, -10, -10, -10, -20,
+					-10, 0, 0, 0, 0, 0, 0, -10,
+					-10, 0, 5, 10, 10, 5, 0, -10,
+					-10, 5, 5, 10, 10, 5, 5, -10,
+					-10, 0, 10, 10, 10, 10, 0, -10,
+					-10, 10, 10, 10, 10, 10, 10, -10,
+					-10, 5, 0, 0, 0, 0, 5, -10,
+					-20, -10, -10, -10, -10, -10, -10, -20 },
+			{ 0, 0, 0, 0, 0, 0, 0, 0,
+					5, 10, 10, 10, 10, 10, 10, 5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					0, 0, 0, 5, 5, 0, 0, 0 },
+			{ -20, -10, -10, -5, -5, -10, -10, -20,
+					-10, 0, 0, 0, 0, 0, 0, -10,
+					-10, 0, 5, 5, 5, 5, 0, -10,
+					-5, 0, 5, 5, 5, 5, 0, -5,
+					0, 0, 5, 5, 5, 5, 0, -5,
+					-10, 5, 5, 5, 5, 5, 0, -10,
+					-10, 0, 5, 0, 0, 0, 0, -10,
+					-20, -10, -10, -5, -5, -10, -10, -20 },
+			{ -30, -40, -40, -50, -50, -40, -40, -30,
+					-30, -40, -40, -50, -50, -40, -40, -30,
+					-30, -40, -40, -50, -50, -40, -40, -30,
+					-30, -40, -40, -50, -50, -40, -40, -30,
+					-20, -30, -30, -40, -40, -30, -30, -20,
+					-10, -20, -20, -20, -20, -20, -20, -10,
+					20, 20, 0, 0, 0, 0, 20, 20,
+					20, 30, 10, 0, 0, 10, 30, 20 } };
+
+	private Evaluator() {
+	}
+
+	// Avaliação estatica (material + posição) do ponto de vista do jogador da vez
+	public static int evaluate(ChessMatch chessMatch) {
+		int score = 0;
+		for (int type = ChessBoard.PAWN; type <= ChessBoard.KING; type++) {
+			long white = chessMatch.getBitboard(type, Color.WHITE);
+			while (white != 0) {
+				score += PIECE_VALUES[type] + PIECE_SQUARE[type][Long.numberOfTrailingZeros(white)];
+				white &= white - 1;
+			}
+			long black = chessMatch.getBitboard(type, Color.BLACK);
+			while (black != 0) {
+				score -= PIECE_VALUES[type] + PIECE_SQUARE[type][Long.numberOfTrailingZeros(black) ^ 56];
+				black &= black - 1;
+			}
+		}
+		return (chessMatch.getCurrentPlayer() == Color.WHITE) ? score : -score;
+	}
+}
@@ -0,0 +1,74 @@
+package chess.engine;
+
+import java.util.SplittableRandom;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.book.OpeningBook;
+
+// Politica de escolha de jogada para partidas sem console (self-play). Cada instancia guarda estado
+// proprio (gerador aleatorio, busca), então uma partida usa as suas e nunca divide com outra thread.
+public interface MovePolicy {
+
+	int chooseMove(ChessMatch chessMatch); // Jogada legal compactada (ver Move), zero se não houver
+
+	static MovePolicy random(long seed) { // Qualquer jogada legal, com a mesma chance
+		SplittableRandom random = new SplittableRandom(seed);
+		int[] moves = new int[256];
+		return chessMatch -> {
+			int count = chessMatch.legalMoves(moves);
+			return (count == 0) ? Move.NONE : moves[random.nextInt(count)];
+		};
+	}
+
+	static MovePolicy greedy(long seed) { // Melhor avaliação estatica depois de um lance; empates sorteados
+		SplittableRandom random = new SplittableRandom(seed);
+		int[] moves = new int[256];
+		return chessMatch -> {
+			int count = chessMatch.legalMoves(moves);
+			int best = Move.NONE;
+			int bestScore = Integer.MIN_VALUE;
+			int ties = 0;
+			for (int i = 0; i < count; i++) {
+				chessMatch.makeMove(moves[i]);
+				int score = -Evaluator.evaluate(chessMatch);
+				chessMatch.undoMove();
+				if (score > bestScore) {
+					best = moves[i];
+					bestScore = score;
+					ties = 1;
+				} else if (score == bestScore && random.nextInt(++ties) == 0) {
+					best = moves[i];
+				}
+			}
+			return best;
+		};
+	}
+
+	static MovePolicy search(int depth) { // Busca alfa-beta até a profundidade fixa
+		return new SearchPolicy(depth);
+	}
+
+	// Lance do livro de aberturas enquanto houver, depois a politica informada
+	static MovePolicy book(OpeningBook book, MovePolicy fallback, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		return chessMatch -> {
+			int move = chessMatch.bookMove(book, random);
+			return (move != Move.NONE) ? move : fallback.chooseMove(chessMatch);
+		};
+	}
+
+	// "random", "greedy" ou "search:<profundidade>"
+	static MovePolicy parse(String spec, long seed) {
+		if (spec.equals("random")) {
+			return random(seed);
+		}
+		if (spec.equals("greedy")) {
+			return greedy(seed);
+		}
+		if (spec.startsWith("search:")) {
+			return search(Integer.parseInt(spec.substring(7)));
+		}
+		throw new IllegalArgumentException("Unknown move policy: " + spec);
+	}
+}
@@ -0,0 +1,122 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.ChessMatch;
+
+// Lazy SMP: todas as threads fazem a mesma busca iterativa na sua propria copia da partida e dividem
+// so a tabela de transposição. A thread principal respeita os limites de tempo e nós e, ao terminar,
+// para as auxiliares; as auxiliares ímpares começam uma profundidade acima, para as threads se desencontrarem.
+public class ParallelSearch {
+
+	private final ChessMatch chessMatch;
+	private final TranspositionTable table;
+	private final int threads;
+	private final Search main;
+	private final ExecutorService pool; // Só as auxiliares; a principal roda na thread que chamou search()
+
+	private int depthLimit = Search.MAX_PLY - 1;
+	private volatile List<Search> helpers = new ArrayList<>();
+
+	public ParallelSearch(ChessMatch chessMatch, TranspositionTable table, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Parallel search needs at least 1 thread");
+		}
+		this.chessMatch = chessMatch;
+		this.table = table;
+		this.threads = threads;
+		this.main = new Search(chessMatch, table);
+		AtomicInteger counter = new AtomicInteger();
+		this.pool = (threads == 1) ? null : Executors.newFixedThreadPool(threads - 1, r -> {
+			Thread thread = new Thread(r, "search-helper-" + counter.incrementAndGet());
+			thread.setDaemon(true); // Não segura a JVM aberta se ninguem chamar shutdown()
+			return thread;
+		});
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setDepthLimit(int depthLimit) {
+		this.depthLimit = depthLimit;
+		main.setDepthLimit(depthLimit);
+	}
+
+	public void setTimeLimit(long millis) {
+		main.setTimeLimit(millis);
+	}
+
+	public void setNodeLimit(long nodeLimit) { // Conta só os nós da thread principal
+		main.setNodeLimit(nodeLimit);
+	}
+
+	public void stop() {
+		main.stop();
+		for (Search helper : helpers) {
+			helper.stop();
+		}
+	}
+
+	// Retorna o resultado da iteração completa mais profunda entre todas as threads (a principal desempata),
+	// com a soma dos nós visitados por todas
+	public SearchResult search() {
+		long startTime = System.currentTimeMillis();
+		table.newSearch();
+
+		List<Search> workers = new ArrayList<>();
+		List<Future<SearchResult>> futures = new ArrayList<>();
+		for (int i = 1; i < threads; i++) {
+			Search helper = new Search(new ChessMatch(chessMatch), table);
+			helper.setDepthLimit(depthLimit);
+			helper.reset();
+			workers.add(helper);
+		}
+		helpers = workers;
+		for (int i = 0; i < workers.size(); i++) {
+			Search helper = workers.get(i);
+			int firstDepth = 1 + ((i + 1) & 1);
+			futures.add(pool.submit(() -> helper.iterate(firstDepth)));
+		}
+
+		main.reset();
+		SearchResult best = main.iterate(1);
+		long nodes = main.getNodes();
+		for (Search helper : workers) {
+			helper.stop();
+		}
+		for (int i = 0; i < futures.size(); i++) {
+			SearchResult result = join(futures.get(i));
+			nodes += workers.get(i).getNodes();
+			if (result.getDepth() > best.getDepth() && result.getBestMove() != 0) {
+				best = result;
+			}
+		}
+		helpers = new ArrayList<>();
+		return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes,
+				System.currentTimeMillis() - startTime, best.getPrincipalVariation());
+	}
+
+	public void shutdown() {
+		if (pool != null) {
+			pool.shutdownNow();
+		}
+	}
+
+	private static SearchResult join(Future<SearchResult> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for search threads", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Search thread failed", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.Move;
+
+public class Search {
+
+	public static final int MATE = 30000;
+	public static final int MAX_PLY = 128;
+	private static final int INFINITY = 32000;
+
+	// Faixas de ordenação: jogada da tabela, capturas (MVV-LVA), killers e depois historico
+	private static final int TT_MOVE_SCORE = 2_000_000;
+	private static final int CAPTURE_SCORE = 1_000_000;
+	private static final int KILLER_SCORE = 900_000;
+
+	private final ChessMatch chessMatch;
+	private final TranspositionTable table;
+
+	private int depthLimit = MAX_PLY - 1;
+	private long timeLimitMillis = Long.MAX_VALUE;
+	private long nodeLimit = Long.MAX_VALUE;
+
+	// Buffers por nivel, alocados uma vez e reaproveitados em todas as buscas
+	private final int[][] moves = new int[MAX_PLY][256];
+	private final int[][] moveScores = new int[MAX_PLY][256];
+	private final int[][] killers = new int[MAX_PLY][2];
+	private final int[][][] history = new int[2][64][64];
+	private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+	private final int[] pvLength = new int[MAX_PLY + 1];
+
+	private long nodes;
+	private long startTime;
+	private int rootDepth;
+	private volatile boolean stopped;
+
+	public Search(ChessMatch chessMatch, TranspositionTable table) {
+		this.chessMatch = chessMatch;
+		this.table = table;
+	}
+
+	public void setDepthLimit(int depthLimit) {
+		this.depthLimit = Math.max(1, Math.min(depthLimit, MAX_PLY - 1));
+	}
+
+	public void setTimeLimit(long millis) {
+		this.timeLimitMillis = millis;
+	}
+
+	public void setNodeLimit(long nodeLimit) {
+		this.nodeLimit = nodeLimit;
+	}
+
+	public long getNodes() { // Nós visitados na busca atual
+		return nodes;
+	}
+
+	public void stop() { // Pode ser chamado de outra thread para encerrar a busca
+		stopped = true;
+	}
+
+	// Aprofundamento iterativo: cada iteração completa vira o resultado; uma iteração interrompida
+	// por tempo ou nós é descartada. A partida volta ao estado original ao final.
+	public SearchResult search() {
+		stopped = false;
+		table.newSearch();
+		return iterate(1);
+	}
+
+	void reset() { // Libera a busca para uma nova execução de iterate
+		stopped = false;
+	}
+
+	// Iterações a partir da profundidade informada, sem envelhecer a tabela nem limpar o pedido de parada
+	// (usado também pelas threads auxiliares do ParallelSearch)
+	SearchResult iterate(int firstDepth) {
+		startTime = System.currentTimeMillis();
+		nodes = 0;
+		for (int[] k : killers) {
+			Arrays.fill(k, 0);
+		}
+		for (int[][] side : history) {
+			for (int[] h : side) {
+				Arrays.fill(h, 0);
+			}
+		}
+
+		SearchResult result = new SearchResult(0, 0, 0, 0, 0, new int[0]);
+		for (int depth = Math.min(firstDepth, depthLimit); depth <= depthLimit; depth++) {
+			rootDepth = depth;
+			int score = negamax(depth, -INFINITY, INFINITY, 0);
+			if (stopped) {
+				break;
+			}
+			int[] line = Arrays.copyOf(pv[0], pvLength[0]);
+			int best = (line.length > 0) ? line[0] : result.getBestMove();
+			result = new SearchResult(best, score, depth, nodes, System.currentTimeMillis() - startTime, line);
+			if (stopped || Math.abs(score) >= MATE - MAX_PLY) {
+				break;
+			}
+			if (System.currentTimeMillis() - startTime > timeLimitMillis / 2) {
+				break; // A proxima iteração dificilmente terminaria no tempo
+			}
+		}
+		return result;
+	}
+
+	private int negamax(int depth, int alpha, int beta, int ply) {
+		pvLength[ply] = 0;
+		if (shouldStop()) {
+			return 0;
+		}
+		if (ply > 0 && (chessMatch.getHalfmoveClock() >= 100 || chessMatch.repetitionCount() > 0)) {
+			return 0; // Empate por repetição (basta uma, dentro da arvore) ou pela regra dos 50 lances
+		}
+		boolean inCheck = chessMatch.getCheck();
+		if (inCheck && ply < MAX_PLY - 1) {
+			depth++; // Extensão de check
+		}
+		if (depth <= 0 || ply >= MAX_PLY - 1) {
+			return quiescence(alpha, beta, ply);
+		}
+		nodes++;
+
+		long key = chessMatch.getHash();
+		long entry = table.probe(key);
+		int ttMove = 0;
+		if (entry != 0) {
+			ttMove = TranspositionTable.getMove(entry);
+			if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+				int ttScore = fromTable(TranspositionTable.getScore(entry), ply);
+				int bound = TranspositionTable.getBound(entry);
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && ttScore >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && ttScore <= alpha)) {
+					return ttScore;
+				}
+			}
+		}
+
+		int[] list = moves[ply];
+		int count = chessMatch.generateMoves(list);
+		scoreMoves(list, count, ply, ttMove);
+
+		int originalAlpha = alpha;
+		int bestScore = -INFINITY;
+		int bestMove = 0;
+		int legal = 0;
+		for (int i = 0; i < count; i++) {
+			int move = nextMove(list, moveScores[ply], i, count);
+			if (!chessMatch.makeMove(move)) {
+				continue;
+			}
+			legal++;
+			int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+			chessMatch.undoMove();
+			if (stopped) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+				if (score > alpha) {
+					alpha = score;
+					updatePv(ply, move);
+					if (alpha >= beta) {
+						if (!Move.isCapture(move) && Move.getPromotion(move) == 0) {
+							storeKiller(ply, move);
+							int[] h = history[chessMatch.getCurrentPlayer().ordinal()][Move.getFrom(move)];
+							h[Move.getTo(move)] = Math.min(h[Move.getTo(move)] + depth * depth, KILLER_SCORE - 1);
+						}
+						break;
+					}
+				}
+			}
+		}
+
+		if (legal == 0) { // Sem jogada legal: checkmate ou afogamento
+			return inCheck ? -MATE + ply : 0;
+		}
+
+		int bound = (bestScore >= beta) ? TranspositionTable.LOWER_BOUND
+				: (alpha > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+		table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+		return bestScore;
+	}
+
+	// Busca só de capturas e promoções nas folhas, para não avaliar no meio de uma troca
+	private int quiescence(int alpha, int beta, int ply) {
+		pvLength[ply] = 0;
+		if (shouldStop()) {
+			return 0;
+		}
+		nodes++;
+		int standPat = Evaluator.evaluate(chessMatch);
+		if (ply >= MAX_PLY - 1 || standPat >= beta) {
+			return standPat;
+		}
+		if (standPat > alpha) {
+			alpha = standPat;
+		}
+
+		int[] list = moves[ply];
+		int count = chessMatch.generateMoves(list);
+		int tactical = 0;
+		for (int i = 0; i < count; i++) { // Mantendo só as jogadas taticas no inicio da lista
+			if (Move.isCapture(list[i]) || Move.getPromotion(list[i]) == ChessBoard.QUEEN) {
+				list[tactical++] = list[i];
+			}
+		}
+		scoreMoves(list, tactical, ply, 0);
+
+		for (int i = 0; i < tactical; i++) {
+			int move = nextMove(list, moveScores[ply], i, tactical);
+			if (!chessMatch.makeMove(move)) {
+				continue;
+			}
+			int score = -quiescence(-beta, -alpha, ply + 1);
+			chessMatch.undoMove();
+			if (stopped) {
+				return 0;
+			}
+			if (score > alpha) {
+				alpha = score;
+				if (alpha >= beta) {
+					break;
+				}
+			}
+		}
+		return alpha;
+	}
+
+	private void scoreMoves(int[] list, int count, int ply, int ttMove) {
+		int[] scores = moveScores[ply];
+		int side = chessMatch.getCurrentPlayer().ordinal();
+		for (int i = 0; i < count; i++) {
+			int move = list[i];
+			if (move == ttMove) {
+				scores[i] = TT_MOVE_SCORE;
+			} else if (Move.isCapture(move) || Move.getPromotion(move) != 0) {
+				int victim = ((Move.getFlags(move) & Move.EN_PASSANT) != 0) ? ChessBoard.PAWN
+						: Math.max(chessMatch.getPieceType(Move.getTo(move)), ChessBoard.PAWN);
+				int attacker = chessMatch.getPieceType(Move.getFrom(move));
+				scores[i] = CAPTURE_SCORE + victim * 16 + (ChessBoard.KING - attacker) + Move.getPromotion(move) * 64;
+			} else if (move == killers[ply][0] || move == killers[ply][1]) {
+				scores[i] = KILLER_SCORE + ((move == killers[ply][0]) ? 1 : 0);
+			} else {
+				scores[i] = history[side][Move.getFrom(move)][Move.getTo(move)];
+			}
+		}
+	}
+
+	private static int nextMove(int[] list, int[] scores, int index, int count) { // Seleção: traz a melhor restante para o indice
+		int best = index;
+		for (int i = index + 1; i < count; i++) {
+			if (scores[i] > scores[best]) {
+				best = i;
+			}
+		}
+		int move = list[best];
+		list[best] = list[index];
+		list[index] = move;
+		int score = scores[best];
+		scores[best] = scores[index];
+		scores[index] = score;
+		return move;
+	}
+
+	private void storeKiller(int ply, int move) {
+		if (killers[ply][0] != move) {
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = move;
+		}
+	}
+
+	private void updatePv(int ply, int move) {
+		pv[ply][0] = move;
+		System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+		pvLength[ply] = pvLength[ply + 1] + 1;
+	}
+
+	private boolean shouldStop() {
+		if (stopped) {
+			return true;
+		}
+		if ((nodes & 1023) == 0 && rootDepth > 1) { // A primeira iteração sempre termina, para haver jogada
+			if (nodes >= nodeLimit || System.currentTimeMillis() - startTime >= timeLimitMillis) {
+				stopped = true;
+			}
+		}
+		return stopped;
+	}
+
+	// Scores de mate na tabela são relativos ao nivel em que foram guardados
+	private static int toTable(int score, int ply) {
+		if (score >= MATE - MAX_PLY) {
+			return score + ply;
+		}
+		if (score <= -MATE + MAX_PLY) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	private static int fromTable(int score, int ply) {
+		if (score >= MATE - MAX_PLY) {
+			return score - ply;
+		}
+		if (score <= -MATE + MAX_PLY) {
+			return score + ply;
+		}
+		return score;
+	}
+}
@@ -0,0 +1,27 @@
+package chess.engine;
+
+import chess.ChessMatch;
+
+// A busca fica presa a partida da primeira chamada, para os buffers e a tabela serem reaproveitados
+// em todos os lances da partida
+class SearchPolicy implements MovePolicy {
+
+	private final int depth;
+	private final TranspositionTable table = new TranspositionTable(4);
+	private ChessMatch chessMatch;
+	private Search search;
+
+	SearchPolicy(int depth) {
+		this.depth = depth;
+	}
+
+	@Override
+	public int chooseMove(ChessMatch chessMatch) {
+		if (chessMatch != this.chessMatch) {
+			this.chessMatch = chessMatch;
+			search = new Search(chessMatch, table);
+			search.setDepthLimit(depth);
+		}
+		return search.search().getBestMove();
+	}
+}
@@ -0,0 +1,68 @@
+package chess.engine;
+
+import chess.Move;
+
+public class SearchResult {
+
+	private final int bestMove;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	private final long timeMillis;
+	private final int[] principalVariation;
+
+	public SearchResult(int bestMove, int score, int depth, long nodes, long timeMillis, int[] principalVariation) {
+		this.bestMove = bestMove;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.timeMillis = timeMillis;
+		this.principalVariation = principalVariation;
+	}
+
+	public int getBestMove() { // Jogada compactada (ver Move); zero quando não ha jogada legal
+		return bestMove;
+	}
+
+	public int getScore() { // Centipeões, do ponto de vista de quem joga
+		return score;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	public int[] getPrincipalVariation() {
+		return principalVariation.clone();
+	}
+
+	public boolean isMate() {
+		return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("depth ").append(depth);
+		if (isMate()) {
+			int plies = Search.MATE - Math.abs(score);
+			sb.append(" mate ").append((score > 0) ? (plies + 1) / 2 : -(plies + 1) / 2);
+		} else {
+			sb.append(" score ").append(score);
+		}
+		sb.append(" nodes ").append(nodes).append(" time ").append(timeMillis);
+		sb.append(" nps ").append(nodes * 1000 / Math.max(1, timeMillis)).append(" pv");
+		for (int move : principalVariation) {
+			sb.append(' ').append(Move.toString(move));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,165 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable {
+
+	// Tipos de limite do valor guardado
+	public static final int EXACT = 0;
+	public static final int LOWER_BOUND = 1; // Corte beta: o valor real é >= score
+	public static final int UPPER_BOUND = 2; // Nenhuma jogada passou de alfa: o valor real é <= score
+
+	// Cada entrada são dois longs (chave e dados) e cada balde tem duas entradas: a primeira só é
+	// trocada por uma busca mais profunda (ou de uma busca antiga), a segunda é sempre substituida.
+	// Nenhum objeto por entrada: tudo fica num long[] alocado uma vez.
+	//
+	// A tabela pode ser compartilhada entre threads sem trava: o primeiro long guarda chave XOR dados,
+	// então uma entrada com escrita interrompida por outra thread simplesmente não confere com a chave.
+	//
+	// Dados: bits 0-19 jogada (Move), 20-35 score (16 bits com sinal), 36-43 profundidade,
+	// 44-45 limite, 46-53 idade da busca, bit 63 sempre ligado (entrada valida nunca é zero)
+	private static final int LONGS_PER_BUCKET = 4;
+	private static final long VALID = 1L << 63;
+
+	private final long[] table;
+	private final int bucketMask;
+	private volatile int age;
+
+	// Contadores por celulas (LongAdder), para as threads não disputarem a mesma linha de cache
+	private final LongAdder probes = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder collisions = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+
+	public TranspositionTable(int megabytes) {
+		if (megabytes < 1) {
+			throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+		}
+		long buckets = Long.highestOneBit(megabytes * 1024L * 1024L / (LONGS_PER_BUCKET * 8));
+		if (buckets * LONGS_PER_BUCKET > Integer.MAX_VALUE - 8) {
+			buckets = Integer.highestOneBit((Integer.MAX_VALUE - 8) / LONGS_PER_BUCKET);
+		}
+		table = new long[(int) buckets * LONGS_PER_BUCKET];
+		bucketMask = (int) buckets - 1;
+	}
+
+	public static int getMove(long entry) {
+		return (int) (entry & 0xFFFFF);
+	}
+
+	public static int getScore(long entry) {
+		return (short) (entry >>> 20);
+	}
+
+	public static int getDepth(long entry) {
+		return (int) ((entry >>> 36) & 0xFF);
+	}
+
+	public static int getBound(long entry) {
+		return (int) ((entry >>> 44) & 0x3);
+	}
+
+	// Retorna os dados da entrada da posição, ou zero quando ela não esta na tabela
+	public long probe(long key) {
+		probes.increment();
+		int index = index(key);
+		long data0 = table[index + 1];
+		long data1 = table[index + 3];
+		long found = 0;
+		if (data0 != 0 && (table[index] ^ data0) == key) {
+			found = data0;
+		} else if (data1 != 0 && (table[index + 2] ^ data1) == key) {
+			found = data1;
+		}
+		if (found != 0) {
+			hits.increment();
+		} else if (data0 != 0 || data1 != 0) {
+			collisions.increment(); // Balde ocupado por outras posições
+		}
+		return found;
+	}
+
+	public void store(long key, int move, int score, int depth, int bound) {
+		stores.increment();
+		int index = index(key);
+		long data0 = table[index + 1];
+		long data1 = table[index + 3];
+		boolean sameKey0 = data0 != 0 && (table[index] ^ data0) == key;
+
+		// Mesma posição sem jogada nova: mantem a jogada que ja estava guardada
+		if (move == 0) {
+			if (sameKey0) {
+				move = getMove(data0);
+			} else if (data1 != 0 && (table[index + 2] ^ data1) == key) {
+				move = getMove(data1);
+			}
+		}
+		long data = VALID | ((long) age << 46) | ((long) bound << 44) | ((long) Math.min(Math.max(depth, 0), 255) << 36)
+				| (((long) score & 0xFFFF) << 20) | (move & 0xFFFFF);
+
+		boolean replaceDeep = data0 == 0 || sameKey0 || depth >= getDepth(data0)
+				|| ((data0 >>> 46) & 0xFF) != age;
+		if (replaceDeep) {
+			table[index] = key ^ data;
+			table[index + 1] = data;
+		} else {
+			table[index + 2] = key ^ data;
+			table[index + 3] = data;
+		}
+	}
+
+	public void newSearch() { // Entradas de buscas anteriores passam a ser substituiveis
+		age = (age + 1) & 0xFF;
+	}
+
+	public void clear() {
+		Arrays.fill(table, 0L);
+		age = 0;
+		probes.reset();
+		hits.reset();
+		collisions.reset();
+		stores.reset();
+	}
+
+	public long getProbes() {
+		return probes.sum();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getCollisions() {
+		return collisions.sum();
+	}
+
+	public long getStores() {
+		return stores.sum();
+	}
+
+	public double getHitRate() {
+		long total = probes.sum();
+		return (total == 0) ? 0 : (double) hits.sum() / total;
+	}
+
+	public int getHashFull() { // Permil de entradas ocupadas pela busca atual, numa amostra do inicio da tabela
+		int sample = Math.min(1000, (bucketMask + 1) * 2);
+		int used = 0;
+		for (int i = 0; i < sample; i++) {
+			long data = table[i * 2 + 1];
+			if (data != 0 && ((data >>> 46) & 0xFF) == age) {
+				used++;
+			}
+		}
+		return used * 1000 / sample;
+	}
+
+	public int getCapacity() {
+		return (bucketMask + 1) * 2;
+	}
+
+	private int index(long key) {
+		return ((int) key & bucketMask) * LONGS_PER_BUCKET;
+	}
+}
@@ -0,0 +1,74 @@
+package chess.pgn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import chess.ChessException;
+import chess.ChessMatch;
+
+// Uma partida PGN: tags na ordem lida, lances em SAN e resultado ("1-0", "0-1", "1/2-1/2" ou "*")
+public class PgnGame {
+
+	private final Map<String, String> tags = new LinkedHashMap<>();
+	private final List<String> moves = new ArrayList<>();
+	private String result = "*";
+
+	public Map<String, String> getTags() {
+		return Collections.unmodifiableMap(tags);
+	}
+
+	public String getTag(String name) {
+		return tags.get(name);
+	}
+
+	public void setTag(String name, String value) {
+		tags.put(name, value);
+	}
+
+	public List<String> getMoves() {
+		return Collections.unmodifiableList(moves);
+	}
+
+	public void addMove(String san) {
+		moves.add(san);
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	public void setResult(String result) {
+		this.result = result;
+	}
+
+	// Posição inicial: a do tag FEN, quando houver, ou a inicial padrão
+	public ChessMatch startingPosition() {
+		String fen = tags.get("FEN");
+		return (fen == null) ? new ChessMatch() : new ChessMatch(fen);
+	}
+
+	// Reproduz os lances pela performChessMove, validando cada um; retorna a partida na posição final
+	public ChessMatch replay() {
+		return replay(null);
+	}
+
+	// Como replay(), guardando em resolved (se não for nulo) cada lance já resolvido no formato do Move
+	public ChessMatch replay(int[] resolved) {
+		ChessMatch chessMatch = startingPosition();
+		for (int i = 0; i < moves.size(); i++) {
+			try {
+				int move = San.parse(chessMatch, moves.get(i));
+				if (resolved != null) {
+					resolved[i] = move;
+				}
+				chessMatch.performChessMove(move);
+			} catch (ChessException e) {
+				throw new ChessException("Ply " + (i + 1) + " (" + moves.get(i) + "): " + e.getMessage());
+			}
+		}
+		return chessMatch;
+	}
+}
@@ -0,0 +1,210 @@
+package chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import chess.ChessException;
+
+// Leitor de PGN em fluxo: uma partida por chamada de next(), lendo caractere a caractere de um buffer
+// proprio de tamanho fixo (sem a trava por caractere do BufferedReader). Comentarios, variações e NAGs
+// são descartados sem guardar, então a memoria não depende do tamanho do arquivo, só da partida atual.
+public class PgnReader implements Closeable {
+
+	private final Reader in;
+	private final char[] buffer = new char[1 << 16];
+	private int position;
+	private int limit;
+	private final StringBuilder token = new StringBuilder(); // Reaproveitado para todos os tokens
+	private int pushedBack = -1;
+	private long line = 1;
+	private long gamesRead;
+
+	public PgnReader(Reader reader) {
+		in = reader;
+	}
+
+	public PgnReader(InputStream input) {
+		this(new InputStreamReader(input, StandardCharsets.UTF_8));
+	}
+
+	public long getLine() { // Linha atual, para mensagens de erro
+		return line;
+	}
+
+	public long getGamesRead() {
+		return gamesRead;
+	}
+
+	// Proxima partida, ou null no fim do arquivo. Os lances não são validados aqui (ver PgnGame.replay()).
+	public PgnGame next() throws IOException {
+		PgnGame game = null;
+		int variationDepth = 0;
+		while (true) {
+			int c = read();
+			if (c < 0) {
+				return finish(game);
+			}
+			if (Character.isWhitespace(c)) {
+				continue;
+			}
+			switch (c) {
+			case '{': // Comentario
+				skipUntil('}');
+				continue;
+			case ';': // Comentario até o fim da linha
+				skipUntil('\n');
+				continue;
+			case '%': // Linha de escape
+				skipUntil('\n');
+				continue;
+			case '(':
+				variationDepth++;
+				continue;
+			case ')':
+				variationDepth = Math.max(0, variationDepth - 1);
+				continue;
+			default:
+				break;
+			}
+			if (variationDepth > 0) { // Lances das variações são ignorados
+				continue;
+			}
+
+			if (c == '[') {
+				if (game != null && !game.getMoves().isEmpty()) { // Partida anterior sem resultado: termina aqui
+					pushedBack = c;
+					return finish(game);
+				}
+				if (game == null) {
+					game = new PgnGame();
+				}
+				readTag(game);
+				continue;
+			}
+			if (c == '$') { // NAG, ex: $1
+				readToken(c);
+				continue;
+			}
+
+			String word = readToken(c);
+			if (game == null) {
+				game = new PgnGame();
+			}
+			if (word.equals("1-0") || word.equals("0-1") || word.equals("1/2-1/2") || word.equals("*")) {
+				game.setResult(word);
+				return finish(game);
+			}
+			int start = 0; // Numero do lance: "12." ou "12..." (as vezes grudado no lance, "12.e4")
+			while (start < word.length() && Character.isDigit(word.charAt(start))) {
+				start++;
+			}
+			if (start < word.length() && word.charAt(start) == '.') {
+				while (start < word.length() && word.charAt(start) == '.') {
+					start++;
+				}
+			} else {
+				start = 0;
+			}
+			int end = word.length(); // Anotações grudadas no lance ("Nf3!?") ficam de fora
+			while (end > start && (word.charAt(end - 1) == '!' || word.charAt(end - 1) == '?')) {
+				end--;
+			}
+			if (start < end) {
+				game.addMove(word.substring(start, end));
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private PgnGame finish(PgnGame game) {
+		if (game != null) {
+			gamesRead++;
+		}
+		return game;
+	}
+
+	private void readTag(PgnGame game) throws IOException { // [Nome "valor"]
+		int c = read();
+		while (c >= 0 && Character.isWhitespace(c)) {
+			c = read();
+		}
+		token.setLength(0);
+		while (c >= 0 && !Character.isWhitespace(c) && c != '"' && c != ']') {
+			token.append((char) c);
+			c = read();
+		}
+		String name = token.toString();
+		while (c >= 0 && c != '"' && c != ']') {
+			c = read();
+		}
+		token.setLength(0);
+		if (c == '"') {
+			c = read();
+			while (c >= 0 && c != '"' && c != '\n') {
+				if (c == '\\') {
+					c = read();
+				}
+				token.append((char) c);
+				c = read();
+			}
+			while (c >= 0 && c != ']') {
+				c = read();
+			}
+		}
+		if (c < 0 || name.isEmpty()) {
+			throw new ChessException("Malformed PGN tag at line " + line);
+		}
+		game.setTag(name, token.toString());
+	}
+
+	private String readToken(int first) throws IOException {
+		token.setLength(0);
+		token.append((char) first);
+		int c = read();
+		while (c >= 0 && !Character.isWhitespace(c) && "{}()[];".indexOf(c) < 0) {
+			token.append((char) c);
+			c = read();
+		}
+		if (c >= 0 && !Character.isWhitespace(c)) {
+			pushedBack = c; // O delimitador é o inicio do proximo elemento
+		}
+		return token.toString();
+	}
+
+	private void skipUntil(int end) throws IOException {
+		int c = read();
+		while (c >= 0 && c != end) {
+			c = read();
+		}
+	}
+
+	private int read() throws IOException {
+		int c;
+		if (pushedBack >= 0) {
+			c = pushedBack;
+			pushedBack = -1;
+			return c;
+		}
+		if (position == limit) {
+			limit = in.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		c = buffer[position++];
+		if (c == '\n') {
+			line++;
+		}
+		return c;
+	}
+}
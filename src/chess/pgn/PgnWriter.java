@@ -0,0 +1,117 @@
+package chess.pgn;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import chess.ChessMatch;
+import chess.Color;
+
+// Escreve partidas em PGN no formato de exportação: as sete tags obrigatorias primeiro, depois as
+// demais, e os lances numerados com linhas de até 79 caracteres
+public class PgnWriter implements Closeable, Flushable {
+
+	private static final String[] SEVEN_TAG_ROSTER = { "Event", "Site", "Date", "Round", "White", "Black", "Result" };
+	private static final int LINE_LENGTH = 79;
+
+	private final Writer out;
+	private final StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+
+	public PgnWriter(Writer writer) {
+		out = (writer instanceof BufferedWriter) ? writer : new BufferedWriter(writer, 1 << 16);
+	}
+
+	public void write(PgnGame game) throws IOException {
+		for (String name : SEVEN_TAG_ROSTER) {
+			String value = game.getTag(name);
+			if (value == null) {
+				value = name.equals("Result") ? game.getResult() : name.equals("Date") ? "????.??.??" : "?";
+			}
+			writeTag(name, value);
+		}
+		for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+			if (!isRosterTag(tag.getKey())) {
+				writeTag(tag.getKey(), tag.getValue());
+			}
+		}
+		out.write('\n');
+
+		// Numeração a partir da posição inicial: com FEN, o primeiro lance pode ser das pretas
+		int fullMove = 1;
+		boolean white = true;
+		if (game.getTag("FEN") != null) {
+			ChessMatch start = game.startingPosition();
+			String[] fields = start.toFen().split(" ");
+			fullMove = Integer.parseInt(fields[5]);
+			white = fields[1].equals("w");
+		}
+		line.setLength(0);
+		boolean first = true;
+		for (String move : game.getMoves()) {
+			if (white) {
+				append(fullMove + ".");
+			} else if (first) {
+				append(fullMove + "...");
+			}
+			append(move);
+			if (!white) {
+				fullMove++;
+			}
+			white = !white;
+			first = false;
+		}
+		append(game.getResult());
+		out.write(line.toString());
+		out.write("\n\n");
+	}
+
+	// Resultado PGN do estado final de uma partida jogada
+	public static String result(ChessMatch chessMatch) {
+		if (chessMatch.getCheckMate()) {
+			return (chessMatch.getCurrentPlayer() == Color.WHITE) ? "1-0" : "0-1";
+		}
+		return chessMatch.getDraw() ? "1/2-1/2" : "*";
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	private void append(String token) throws IOException {
+		if (line.length() > 0 && line.length() + 1 + token.length() > LINE_LENGTH) {
+			out.write(line.toString());
+			out.write('\n');
+			line.setLength(0);
+		}
+		if (line.length() > 0) {
+			line.append(' ');
+		}
+		line.append(token);
+	}
+
+	private void writeTag(String name, String value) throws IOException {
+		out.write('[');
+		out.write(name);
+		out.write(" \"");
+		out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+		out.write("\"]\n");
+	}
+
+	private static boolean isRosterTag(String name) {
+		for (String roster : SEVEN_TAG_ROSTER) {
+			if (roster.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,166 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Move;
+import chess.PieceType;
+
+// Notação algebrica padrão (SAN), resolvida contra as jogadas legais do jogador da vez
+public final class San {
+
+	// Buffer de jogadas de cada thread: parse e toSan rodam por lance nas leituras e gravações de PGN, em varias
+	// threads ao mesmo tempo, e nenhuma das duas chama a outra enquanto usa o buffer
+	private static final ThreadLocal<int[]> MOVE_BUFFER = ThreadLocal.withInitial(() -> new int[256]);
+
+	private San() {
+	}
+
+	// Jogada legal compactada (ver Move) correspondente ao SAN; ChessException se nenhuma ou mais de uma servir
+	public static int parse(ChessMatch chessMatch, String san) {
+		int[] moves = MOVE_BUFFER.get();
+		int count = chessMatch.legalMoves(moves);
+		String s = stripSuffix(san);
+
+		if (s.equals("O-O") || s.equals("0-0") || s.equals("O-O-O") || s.equals("0-0-0")) {
+			boolean kingSide = s.length() == 3;
+			for (int i = 0; i < count; i++) {
+				int move = moves[i];
+				if ((Move.getFlags(move) & Move.CASTLING) != 0 && (Move.getTo(move) % 8 == 6) == kingSide) {
+					return move;
+				}
+			}
+			throw new ChessException("Illegal move: " + san);
+		}
+
+		int end = s.length();
+		int promotion = 0;
+		PieceType promotionType = (end > 0) ? PieceType.fromLetter(s.charAt(end - 1)) : null;
+		if (promotionType != null && promotionType.isPromotion() && end > 2
+				&& Character.isDigit(s.charAt(end - 2) == '=' ? s.charAt(end - 3) : s.charAt(end - 2))) {
+			promotion = promotionType.ordinal(); // "e8=Q" ou "e8Q"
+			end -= (s.charAt(end - 2) == '=') ? 2 : 1;
+		}
+		if (end < 2) {
+			throw new ChessException("Invalid move: " + san);
+		}
+		int toColumn = s.charAt(end - 2) - 'a';
+		int toRank = s.charAt(end - 1) - '1';
+		if (toColumn < 0 || toColumn > 7 || toRank < 0 || toRank > 7) {
+			throw new ChessException("Invalid move: " + san);
+		}
+		int to = (7 - toRank) * 8 + toColumn;
+
+		int start = 0;
+		int type = ChessBoard.PAWN;
+		if (Character.isUpperCase(s.charAt(0))) {
+			PieceType pieceType = PieceType.fromLetter(s.charAt(0));
+			if (pieceType == null || pieceType == PieceType.PAWN) {
+				throw new ChessException("Invalid move: " + san);
+			}
+			type = pieceType.ordinal();
+			start = 1;
+		}
+		int fromColumn = -1; // Desambiguação opcional: coluna, linha ou as duas
+		int fromRank = -1;
+		for (int i = start; i < end - 2; i++) {
+			char c = s.charAt(i);
+			if (c >= 'a' && c <= 'h') {
+				fromColumn = c - 'a';
+			} else if (c >= '1' && c <= '8') {
+				fromRank = c - '1';
+			} else if (c != 'x' && c != '-' && c != ':') {
+				throw new ChessException("Invalid move: " + san);
+			}
+		}
+
+		int found = Move.NONE;
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int from = Move.getFrom(move);
+			if (Move.getTo(move) != to || Move.getPromotion(move) != promotion
+					|| (Move.getFlags(move) & Move.CASTLING) != 0 || chessMatch.getPieceType(from) != type
+					|| (fromColumn >= 0 && from % 8 != fromColumn) || (fromRank >= 0 && 7 - from / 8 != fromRank)) {
+				continue;
+			}
+			if (found != Move.NONE) {
+				throw new ChessException("Ambiguous move: " + san);
+			}
+			found = move;
+		}
+		if (found == Move.NONE) {
+			throw new ChessException("Illegal move: " + san);
+		}
+		return found;
+	}
+
+	// SAN de uma jogada legal do jogador da vez, com + ou # (a jogada é feita e desfeita para saber)
+	public static String toSan(ChessMatch chessMatch, int move) {
+		StringBuilder sb = new StringBuilder(8);
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int type = chessMatch.getPieceType(from);
+		if ((Move.getFlags(move) & Move.CASTLING) != 0) {
+			sb.append((to % 8 == 6) ? "O-O" : "O-O-O");
+		} else if (type == ChessBoard.PAWN) {
+			if (Move.isCapture(move)) {
+				sb.append((char) ('a' + from % 8)).append('x');
+			}
+			sb.append(Move.squareName(to));
+			if (Move.getPromotion(move) != 0) {
+				sb.append('=').append(Move.getPromotionType(move).getLetter());
+			}
+		} else {
+			sb.append(PieceType.of(type).getLetter());
+			appendDisambiguation(sb, chessMatch, move, type);
+			if (Move.isCapture(move)) {
+				sb.append('x');
+			}
+			sb.append(Move.squareName(to));
+		}
+
+		if (chessMatch.makeMove(move)) {
+			if (chessMatch.getCheck()) {
+				sb.append((chessMatch.legalMoves(MOVE_BUFFER.get()) == 0) ? '#' : '+');
+			}
+			chessMatch.undoMove();
+		}
+		return sb.toString();
+	}
+
+	// Coluna, linha ou casa de origem, só quando outra peça do mesmo tipo pode ir para a mesma casa
+	private static void appendDisambiguation(StringBuilder sb, ChessMatch chessMatch, int move, int type) {
+		int from = Move.getFrom(move);
+		int[] moves = MOVE_BUFFER.get();
+		int count = chessMatch.legalMoves(moves);
+		boolean ambiguous = false;
+		boolean sameColumn = false;
+		boolean sameRank = false;
+		for (int i = 0; i < count; i++) {
+			int other = Move.getFrom(moves[i]);
+			if (other != from && Move.getTo(moves[i]) == Move.getTo(move) && chessMatch.getPieceType(other) == type) {
+				ambiguous = true;
+				sameColumn |= other % 8 == from % 8;
+				sameRank |= other / 8 == from / 8;
+			}
+		}
+		if (!ambiguous) {
+			return;
+		}
+		if (!sameColumn) {
+			sb.append((char) ('a' + from % 8));
+		} else if (!sameRank) {
+			sb.append((char) ('8' - from / 8));
+		} else {
+			sb.append(Move.squareName(from));
+		}
+	}
+
+	private static String stripSuffix(String san) { // Tira check, mate e anotações (+, #, !, ?)
+		int end = san.length();
+		while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+			end--;
+		}
+		return san.substring(0, end);
+	}
+}
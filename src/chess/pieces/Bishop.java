@@ -1,67 +1,24 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Bishop extends ChessPiece {
 
 	public Bishop(Board board, Color color) {
-		super(board, color);
+		super(board, color, PieceType.BISHOP);
 	}
-	
+
 	@Override
 	public String toString() {
 		return "B";
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-		
-		Position p = new Position(0, 0);
-				
-		//Noroeste
-		p.setValues(position.getRow() -1, position.getColumn() -1);
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() -1, p.getColumn() -1);
-		}
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//Nordeste
-		p.setValues(position.getRow() -1, position.getColumn() + 1);
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() -1, p.getColumn() +1);
-		}
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//Sudeste
-		p.setValues(position.getRow() +1, position.getColumn() + 1);
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() +1, p.getColumn() +1);
-		}
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		//Sudoeste
-		p.setValues(position.getRow() + 1, position.getColumn() -1);
-		while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setValues(p.getRow() +1, p.getColumn() -1);;
-		}
-		if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		
-		return mat;
+	public long possibleMovesBitboard() { // Uma consulta na tabela magica, com a ocupação atual do tabuleiro
+		return Attacks.bishopAttacks(getSquare(), getBoard().getOccupied()) & ~getBoard().getPieces(getColor());
 	}
-}
\ No newline at end of file
+}
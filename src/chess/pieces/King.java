@@ -1,17 +1,19 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.PieceType;
 
 public class King extends ChessPiece {
 
 	private ChessMatch chessMatch;
 
 	public King(Board board, Color color, ChessMatch chessMatch) {
-		super(board, color);
+		super(board, color, PieceType.KING);
 		this.chessMatch = chessMatch;
 	}
 
@@ -20,97 +22,51 @@ public class King extends ChessPiece {
 		return "K";
 	}
 
-	private boolean canMove(Position position) { // Verificando se o Rei pode se mover.
-		ChessPiece p = (ChessPiece) getBoard().piece(position);
-		return p == null || p.getColor() != getColor();
-	}
-
 	// Metodo para testar condição de roque (Jogada especial)
-	private boolean testRookCastling(Position position) {
-		ChessPiece p = (ChessPiece) getBoard().piece(position);
+	private boolean testRookCastling(int square) {
+		ChessPiece p = getBoard().piece(square);
 		// Condição para jogada
-		return p != null && p instanceof Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
+		return p != null && p.getType() == PieceType.ROOK && p.getColor() == getColor() && p.getMoveCount() == 0;
 	}
 
 	@Override
-	public boolean[][] possibleMoves() { // Possiveis movimentos
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-		Position p = new Position(0, 0);
-
-		// above
-		p.setValues(position.getRow() - 1, position.getColumn());
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// below
-		p.setValues(position.getRow() + 1, position.getColumn());
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-
-		// left
-		p.setValues(position.getRow(), position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		// right
-		p.setValues(position.getRow(), position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		// nw
-		p.setValues(position.getRow() - 1, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		// ne
-		p.setValues(position.getRow() - 1, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		// sw
-		p.setValues(position.getRow() + 1, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		// se
-		p.setValues(position.getRow() + 1, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
+	public long possibleMovesBitboard() { // Possiveis movimentos
+		int square = getSquare();
+		int column = square % 8;
+		long moves = Attacks.kingAttacks(square) & ~getBoard().getPieces(getColor());
 
 		// Jogada especial roque
 		if (getMoveCount() == 0 && !chessMatch.getCheck()) {
-			// Testando roque pequeno 
-			Position posT1 = new Position(position.getRow(), position.getColumn() + 3); //Pegando a posição da torre do rei
-			if (testRookCastling(posT1)) { 
-				//Se a condição acima for verdadeira, testa se as casas P1 e P2 estão vazias.
-				Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-				Position p2 = new Position(position.getRow(), position.getColumn() + 2);
-				//Executa o roque se a condição a baixo for satisfeita.
-				if (getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
-					mat[position.getRow()][position.getColumn() + 2] = true;
-				}
+			long occupied = getBoard().getOccupied();
+			Color opponent = (getColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
+			// Testando roque pequeno: torre três casas à direita, as duas casas entre eles vazias
+			// e o rei sem passar por casa atacada
+			if (column + 3 < 8 && testRookCastling(square + 3) && (occupied & (3L << (square + 1))) == 0
+					&& !getBoard().isSquareAttacked(square + 1, opponent)) {
+				moves |= 1L << (square + 2);
 			}
-			
-			// Testando roque grande
-			Position posT2 = new Position(position.getRow(), position.getColumn() - 4); //Pegando posição da torre
-			if (testRookCastling(posT2)) {
-				//Se a condição acima for verdadeira, testa se as casas P1, P2 e P3 estão vazias.
-				Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-				Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-				Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-				//Executa o roque se a condição a baixo for satisfeita.
-				if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null) {
-					mat[position.getRow()][position.getColumn() - 2] = true;
-				}
+			// Testando roque grande: torre quatro casas à esquerda e as três casas entre eles vazias
+			if (column - 4 >= 0 && testRookCastling(square - 4) && (occupied & (7L << (square - 3))) == 0
+					&& !getBoard().isSquareAttacked(square - 1, opponent)) {
+				moves |= 1L << (square - 2);
 			}
 		}
 
-		return mat;
+		return moves;
+	}
 
+	@Override
+	public int generateMoves(int[] moves, int count) {
+		int start = count;
+		count = super.generateMoves(moves, count);
+		for (int i = start; i < count; i++) { // Marcando o roque (rei anda duas casas)
+			int from = Move.getFrom(moves[i]);
+			int to = Move.getTo(moves[i]);
+			if (to == from + 2 || to == from - 2) {
+				moves[i] = Move.encode(from, to, Move.CASTLING, 0);
+			}
+		}
+		return count;
 	}
 
 }
@@ -1,105 +1,85 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.ChessBoard;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.PieceType;
 
 public class Pawn extends ChessPiece {
 	
 	private ChessMatch chessMatch;
 
 	public Pawn(Board board, Color color, ChessMatch chessMatch) {
-		super(board, color);
+		super(board, color, PieceType.PAWN);
 		this.chessMatch = chessMatch;
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
+	public long possibleMovesBitboard() {
+		int square = getSquare();
+		int forward = (getColor() == Color.WHITE) ? -8 : 8; // Peças brancas sobem (linha diminui), pretas descem
+		long occupied = getBoard().getOccupied();
+		long moves = 0;
 
-		Position p = new Position(0, 0);
-
-		if (getColor() == Color.WHITE) { // Se a cor do peão for branca
-			p.setValues(position.getRow() - 1, position.getColumn()); // Uma posição acima
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) { // Se a posição existir e estiver vazia, ele pode se mover para lá
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() - 2, position.getColumn()); // Duas posição acima
-			Position p2 = new Position(position.getRow() - 1, position.getColumn()); // Testando se há peça na casa à frente
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2)
-					&& !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
-				// Se a posição existir e estiver vazia na posição 1 e 2 ele pode se mover para lá
-				// Checa também se é oi primeiro movimento /\
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() - 1, position.getColumn() - 1); // Diagonal esquerda
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) { // Se a posição existir e estiver com peça oponente, ele pode se mover para lá
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-
-			p.setValues(position.getRow() - 1, position.getColumn() + 1); // Diagonal direita
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) { // Se a posição existir e estiver com peça oponente, ele pode se mover para lá
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			
-			// Jogada Especial en passant peças brancas
-			if (position.getRow() == 3) {
-				Position left = new Position(position.getRow(), position.getColumn() -1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
-					mat[left.getRow() -1][left.getColumn()] = true;
-				}
-				Position right = new Position(position.getRow(), position.getColumn() +1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
-					mat[right.getRow() -1][right.getColumn()] = true;
-				}
+		int one = square + forward; // Uma posição à frente
+		if (one >= 0 && one < 64 && (occupied & (1L << one)) == 0) { // Se a posição existir e estiver vazia, ele pode se mover para lá
+			moves |= 1L << one;
+			int two = one + forward; // Duas posições à frente, só no primeiro movimento e com a casa da frente vazia
+			if (getMoveCount() == 0 && two >= 0 && two < 64 && (occupied & (1L << two)) == 0) {
+				moves |= 1L << two;
 			}
 		}
 
-		else {
-			// Movimentos para peça preta
+		// Diagonais com peça oponente
+		moves |= Attacks.pawnAttacks(getColor(), square) & occupied & ~getBoard().getPieces(getColor());
 
-			p.setValues(position.getRow() + 1, position.getColumn()); // Uma posição para baixo
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) { // Se a posição existir e estiver vazia, ele pode se mover para lá
-				mat[p.getRow()][p.getColumn()] = true;
+		// Jogada Especial en passant
+		ChessPiece vulnerable = chessMatch.getEnPassantVulnerable();
+		if (vulnerable != null && vulnerable.getColor() != getColor() && square / 8 == ((getColor() == Color.WHITE) ? 3 : 4)) {
+			int column = square % 8;
+			if (column > 0 && getBoard().piece(square - 1) == vulnerable) {
+				moves |= 1L << (square - 1 + forward);
 			}
-			p.setValues(position.getRow() + 2, position.getColumn()); // Duas posição para baixo
-			Position p2 = new Position(position.getRow() + 1, position.getColumn()); // Testando se há peça na casa à frente
-			if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2)
-					&& !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
-				// Se a posição existir e estiver vazia na posição 1 e 2 ele pode se mover para lá
-				// Checa também se é oi primeiro movimento /\
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() + 1, position.getColumn() - 1); // Diagonal esquerda
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) { // Se a posição existir e estiver com peça oponente, ele pode se mover para lá
-				mat[p.getRow()][p.getColumn()] = true;
+			if (column < 7 && getBoard().piece(square + 1) == vulnerable) {
+				moves |= 1L << (square + 1 + forward);
 			}
+		}
+
+		return moves;
+	}
 
-			p.setValues(position.getRow() + 1, position.getColumn() + 1); // Diagonal direita
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) { // Se a posição existir e estiver com peça oponente, ele pode se mover para lá
-				mat[p.getRow()][p.getColumn()] = true;
+	@Override
+	public int generateMoves(int[] moves, int count) {
+		int from = getSquare();
+		long targets = possibleMovesBitboard();
+		long occupied = getBoard().getOccupied();
+		while (targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			int flags = ((occupied >>> to) & 1L) != 0 ? Move.CAPTURE : 0;
+			if (flags == 0 && (to - from) % 8 != 0) { // Diagonal para casa vazia: en passant
+				flags = Move.CAPTURE | Move.EN_PASSANT;
+			} else if (to - from == 16 || to - from == -16) {
+				flags = Move.DOUBLE_PUSH;
 			}
-		
-			//Jogada especial en passant peças pretas
-			if (position.getRow() == 4) {
-				Position left = new Position(position.getRow(), position.getColumn() -1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
-					mat[left.getRow() +1][left.getColumn()] = true;
-				}
-				Position right = new Position(position.getRow(), position.getColumn() +1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
-					mat[right.getRow() +1][right.getColumn()] = true;
-				}
+			if (to / 8 == 0 || to / 8 == 7) { // Promoção: uma jogada para cada peça possivel
+				moves[count++] = Move.encode(from, to, flags, ChessBoard.QUEEN);
+				moves[count++] = Move.encode(from, to, flags, ChessBoard.ROOK);
+				moves[count++] = Move.encode(from, to, flags, ChessBoard.BISHOP);
+				moves[count++] = Move.encode(from, to, flags, ChessBoard.KNIGHT);
+			} else {
+				moves[count++] = Move.encode(from, to, flags, 0);
 			}
+			targets &= targets - 1;
 		}
-
-		return mat;
+		return count;
 	}
 	
 	@Override
 	public String toString() {
 		return "P";
 	}
-}
\ No newline at end of file
+}
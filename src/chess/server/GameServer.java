@@ -0,0 +1,288 @@
+package chess.server;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Move;
+import chess.PieceType;
+import chess.pgn.San;
+
+// Servidor de partidas por TCP, só no loopback, com um protocolo de linhas em UTF-8. Cada linha é um comando
+// e recebe uma linha de resposta, "OK ..." ou "ERR <mensagem>":
+//
+//   NEW [fen]          -> OK <id>                     nova partida (posição inicial ou FEN)
+//   MOVE <id> <lance>  -> OK <lance> <estado>         lance em coordenadas (e2e4, e7e8n) ou SAN (Nf3, O-O)
+//   UNDO <id>          -> OK <estado>                 volta um lance (ChessMatch.unmakeMove())
+//   REDO <id>          -> OK <estado>                 refaz o lance desfeito
+//   STATUS <id>        -> OK <estado>
+//   FEN <id>           -> OK <fen>
+//   MOVES <id>         -> OK <lances legais>
+//   HISTORY <id>       -> OK <lances jogados>
+//   CLOSE <id>         -> OK                          encerra a partida
+//   QUIT               -> OK                          fecha a conexão
+//
+// O estado é "<jogador> <situação>": PLAYING, CHECK, CHECKMATE (o jogador é o vencedor) ou o motivo do empate.
+// Qualquer conexão pode jogar em qualquer partida pelo id. As partidas ficam num ConcurrentHashMap e cada uma
+// é serializada pelo seu proprio lock (ver GameSession); partidas sem comandos por idleTimeout são removidas.
+public class GameServer implements Closeable {
+
+	private static final Pattern SEPARATOR = Pattern.compile("\\s+");
+	private static final Pattern COORDINATES = Pattern.compile("[a-h][1-8][a-h][1-8][nbrqNBRQ]?");
+
+	private final ServerSocket serverSocket;
+	private final long idleTimeout; // Nanossegundos
+	private final int maxGames;
+	private final ConcurrentHashMap<String, GameSession> games = new ConcurrentHashMap<>();
+	private final AtomicInteger gameCount = new AtomicInteger(); // O size() do mapa não é exato sob concorrencia
+	private final ExecutorService connections = connectionExecutor();
+	private final ScheduledExecutorService evictor;
+	private volatile boolean closed;
+
+	// port 0: porta livre escolhida pelo sistema (ver getPort())
+	public GameServer(int port, long idleTimeoutMillis, int maxGames) throws IOException {
+		if (idleTimeoutMillis <= 0 || maxGames <= 0) {
+			throw new IllegalArgumentException("Idle timeout and maximum number of games must be positive");
+		}
+		this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+		this.maxGames = maxGames;
+		this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+		this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "game-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(100, Math.min(60_000, idleTimeoutMillis / 4));
+		evictor.scheduleWithFixedDelay(this::evictIdleGames, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	public int getGameCount() {
+		return gameCount.get();
+	}
+
+	// Aceita conexões até close(); cada conexão roda na sua propria thread
+	public void serve() throws IOException {
+		while (!closed) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (SocketException e) {
+				if (closed) {
+					return;
+				}
+				throw e;
+			}
+			socket.setTcpNoDelay(true); // Respostas curtas: sem esperar para juntar pacotes
+			connections.execute(() -> handle(socket));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		serverSocket.close();
+		evictor.shutdownNow();
+		connections.shutdownNow();
+	}
+
+	private void handle(Socket socket) {
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				String response = execute(line);
+				out.write(response);
+				out.write('\n');
+				out.flush();
+				if (line.trim().equalsIgnoreCase("QUIT")) {
+					return;
+				}
+			}
+		} catch (IOException e) {
+			// Conexão caiu: as partidas continuam até CLOSE ou inatividade
+		}
+	}
+
+	// Executa um comando do protocolo e retorna a linha de resposta, sem o '\n'
+	public String execute(String line) {
+		String[] args = SEPARATOR.split(line.trim(), 3);
+		String command = args[0].toUpperCase(Locale.ROOT);
+		try {
+			switch (command) {
+			case "NEW":
+				return "OK " + newGame((args.length == 1) ? null : line.trim().substring(args[0].length()).trim());
+			case "QUIT":
+				return "OK";
+			case "":
+				return "ERR Empty command";
+			case "MOVE":
+			case "UNDO":
+			case "REDO":
+			case "STATUS":
+			case "FEN":
+			case "MOVES":
+			case "HISTORY":
+			case "CLOSE":
+				break;
+			default:
+				return "ERR Unknown command: " + args[0];
+			}
+			if (args.length < 2) {
+				return "ERR Missing game id";
+			}
+			GameSession session = games.get(args[1]);
+			if (session == null) {
+				return "ERR Unknown game: " + args[1];
+			}
+			synchronized (session) {
+				if (session.closed) {
+					return "ERR Unknown game: " + args[1];
+				}
+				session.lastUsed = System.nanoTime();
+				return execute(session, command, (args.length == 3) ? args[2] : null);
+			}
+		} catch (ChessException | IllegalStateException | IllegalArgumentException e) {
+			return "ERR " + e.getMessage();
+		}
+	}
+
+	private String execute(GameSession session, String command, String argument) {
+		ChessMatch chessMatch = session.chessMatch;
+		switch (command) {
+		case "MOVE":
+			if (argument == null) {
+				throw new IllegalArgumentException("Missing move");
+			}
+			if (chessMatch.getCheckMate() || chessMatch.getDraw()) {
+				throw new IllegalStateException("The game is over");
+			}
+			chessMatch.performChessMove(parseMove(chessMatch, argument.trim()));
+			return "OK " + Move.toString(chessMatch.getLastMove()) + " " + state(chessMatch);
+		case "UNDO":
+			chessMatch.unmakeMove();
+			return "OK " + state(chessMatch);
+		case "REDO":
+			chessMatch.redoMove();
+			return "OK " + state(chessMatch);
+		case "STATUS":
+			return "OK " + state(chessMatch);
+		case "FEN":
+			return "OK " + chessMatch.toFen();
+		case "MOVES": {
+			int[] moves = new int[256];
+			int count = (chessMatch.getCheckMate() || chessMatch.getDraw()) ? 0 : chessMatch.legalMoves(moves);
+			StringBuilder sb = new StringBuilder("OK");
+			for (int i = 0; i < count; i++) {
+				sb.append(' ').append(Move.toString(moves[i]));
+			}
+			return sb.toString();
+		}
+		case "HISTORY": {
+			StringBuilder sb = new StringBuilder("OK");
+			for (int move : chessMatch.getMoveHistory()) {
+				sb.append(' ').append(Move.toString(move));
+			}
+			return sb.toString();
+		}
+		default: // CLOSE
+			remove(session);
+			return "OK";
+		}
+	}
+
+	private String newGame(String fen) {
+		ChessMatch chessMatch = (fen == null) ? new ChessMatch() : new ChessMatch(fen); // FEN invalido: ChessException
+		if (gameCount.incrementAndGet() > maxGames) {
+			gameCount.decrementAndGet();
+			throw new IllegalStateException("Too many games (" + maxGames + ")");
+		}
+		while (true) { // Id aleatorio: não dá para adivinhar as partidas dos outros a partir da sua
+			String id = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+			if (games.putIfAbsent(id, new GameSession(id, chessMatch)) == null) {
+				return id;
+			}
+		}
+	}
+
+	// Coordenadas (e2e4, e7e8q; sem a letra, promove a rainha) ou SAN
+	private static int parseMove(ChessMatch chessMatch, String move) {
+		if (!COORDINATES.matcher(move).matches()) {
+			return San.parse(chessMatch, move);
+		}
+		int from = ChessPosition.valueOf(move.charAt(0), move.charAt(1) - '0').toSquare();
+		int to = ChessPosition.valueOf(move.charAt(2), move.charAt(3) - '0').toSquare();
+		int promotion = (move.length() == 5) ? PieceType.fromLetter(Character.toUpperCase(move.charAt(4))).ordinal() : 0;
+		return Move.encode(from, to, 0, promotion);
+	}
+
+	private static String state(ChessMatch chessMatch) {
+		String player = chessMatch.getCurrentPlayer().toString();
+		if (chessMatch.getCheckMate()) {
+			return player + " CHECKMATE";
+		}
+		if (chessMatch.getDraw()) {
+			return player + " " + chessMatch.getDrawReason();
+		}
+		return player + (chessMatch.getCheck() ? " CHECK" : " PLAYING");
+	}
+
+	private void remove(GameSession session) { // Chamado com o lock da partida
+		session.closed = true;
+		if (games.remove(session.id, session)) {
+			gameCount.decrementAndGet();
+		}
+	}
+
+	private void evictIdleGames() {
+		long now = System.nanoTime();
+		for (GameSession session : games.values()) { // O iterador do ConcurrentHashMap tolera remoções no meio
+			if (now - session.lastUsed > idleTimeout) {
+				synchronized (session) { // Confere de novo: um comando pode ter chegado depois da primeira leitura
+					if (!session.closed && now - session.lastUsed > idleTimeout) {
+						remove(session);
+					}
+				}
+			}
+		}
+	}
+
+	// Uma virtual thread por conexão quando a JVM tem (Java 21+); no Java 17, threads de plataforma
+	// reaproveitadas, com pilha pequena, já que cada conexão só espera linhas e executa comandos curtos
+	private static ExecutorService connectionExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger counter = new AtomicInteger();
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(null, r, "game-connection-" + counter.incrementAndGet(), 256 * 1024);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package chess.server;
+
+import chess.ChessMatch;
+
+// Uma partida hospedada pelo GameServer. Todo acesso à partida é feito com o lock do proprio objeto, então
+// comandos da mesma partida são executados um de cada vez e partidas diferentes nunca esperam umas pelas outras.
+final class GameSession {
+
+	final String id;
+	final ChessMatch chessMatch;
+	volatile long lastUsed; // System.nanoTime() do ultimo comando, lido sem lock pela limpeza de inativas
+	boolean closed; // Removida (CLOSE ou inatividade): comandos que ja tinham a referencia recebem "Unknown game"
+
+	GameSession(String id, ChessMatch chessMatch) {
+		this.id = id;
+		this.chessMatch = chessMatch;
+		this.lastUsed = System.nanoTime();
+	}
+}
@@ -0,0 +1,183 @@
+package chess.validation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.DrawReason;
+import chess.archive.GameArchive;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+import chess.pgn.PgnWriter;
+
+// Valida partidas em paralelo: a fonte (fluxo PGN ou arquivo binario) é cortada em blocos no limite entre
+// partidas, e cada bloco vira uma tarefa no ForkJoinPool que reproduz suas partidas pela performChessMove
+// (que chama a replacePromotedPiece nas promoções que não são para dama). Os blocos são entregues ao
+// listener e somados na ordem da fonte; no maximo duas tarefas por thread ficam pendentes, para a leitura
+// não se adiantar e acumular a fonte inteira em memoria. As partidas são numeradas a partir de 0 nas mensagens e
+// nos blocos, nas duas fontes, como os indices do GameArchive.
+public class GameValidator {
+
+	private final ForkJoinPool pool;
+	private final int chunkSize;
+	private Consumer<ValidationResult> chunkListener = chunk -> {
+	};
+
+	public GameValidator(ForkJoinPool pool, int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+		}
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	// Chamado na thread que chamou validate(), a cada bloco terminado e na ordem da fonte
+	public void setChunkListener(Consumer<ValidationResult> chunkListener) {
+		this.chunkListener = chunkListener;
+	}
+
+	public ValidationResult validate(Reader pgn) throws IOException {
+		PgnChunker chunker = new PgnChunker(pgn);
+		return run(chunk -> {
+			String text = chunker.next(chunkSize);
+			if (text == null) {
+				return null;
+			}
+			long firstGame = chunker.getFirstGame();
+			long firstLine = chunker.getFirstLine();
+			return ForkJoinTask.adapt(() -> validatePgn(chunk, firstGame, firstLine, text));
+		});
+	}
+
+	public ValidationResult validate(GameArchive archive) throws IOException {
+		return run(chunk -> {
+			long first = chunk * chunkSize;
+			if (first >= archive.size()) {
+				return null;
+			}
+			long last = Math.min(archive.size(), first + chunkSize);
+			return ForkJoinTask.adapt(() -> validateArchive(archive, chunk, first, last));
+		});
+	}
+
+	private interface ChunkSource {
+		ForkJoinTask<ValidationResult> next(long chunk) throws IOException; // null quando a fonte acaba
+	}
+
+	private ValidationResult run(ChunkSource source) throws IOException {
+		ValidationResult total = new ValidationResult(-1, 0);
+		Deque<ForkJoinTask<ValidationResult>> pending = new ArrayDeque<>();
+		int maxPending = pool.getParallelism() * 2;
+		long start = System.nanoTime();
+		long chunk = 0;
+		boolean exhausted = false;
+		try {
+			while (true) {
+				while (!exhausted && pending.size() < maxPending) {
+					ForkJoinTask<ValidationResult> task = source.next(chunk);
+					if (task == null) {
+						exhausted = true;
+					} else {
+						pool.execute(task);
+						pending.add(task);
+						chunk++;
+					}
+				}
+				if (pending.isEmpty()) {
+					break;
+				}
+				ValidationResult result = pending.poll().join();
+				total.add(result);
+				chunkListener.accept(result);
+			}
+		} finally {
+			for (ForkJoinTask<ValidationResult> task : pending) { // Erro na leitura ou no listener
+				task.cancel(false);
+			}
+		}
+		total.setNanos(System.nanoTime() - start);
+		return total;
+	}
+
+	private static ValidationResult validatePgn(long chunk, long firstGame, long firstLine, String text) {
+		ValidationResult result = new ValidationResult(chunk, firstGame);
+		long start = System.nanoTime();
+		PgnReader reader = new PgnReader(new StringReader(text));
+		long n = firstGame;
+		try {
+			while (true) {
+				PgnGame game;
+				try {
+					game = reader.next();
+				} catch (ChessException e) { // Texto mal formado: o resto do bloco não tem como ser separado
+					result.invalid("Game " + n + " (line " + (firstLine + reader.getLine() - 1) + "): " + e.getMessage());
+					break;
+				}
+				if (game == null) {
+					break;
+				}
+				try {
+					ChessMatch chessMatch = game.replay();
+					checkResult(chessMatch, game.getResult());
+					result.valid(game.getResult(), game.getMoves().size());
+				} catch (ChessException e) {
+					result.invalid("Game " + n + " (ending at line " + (firstLine + reader.getLine() - 1) + "): " + e.getMessage());
+				}
+				n++;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // Não acontece com StringReader
+		}
+		result.setNanos(System.nanoTime() - start);
+		return result;
+	}
+
+	private static ValidationResult validateArchive(GameArchive archive, long chunk, long first, long last) {
+		ValidationResult result = new ValidationResult(chunk, first);
+		long start = System.nanoTime();
+		int[] moves = new int[GameArchive.MAX_PLIES];
+		for (long n = first; n < last; n++) {
+			ChessMatch chessMatch;
+			try {
+				chessMatch = archive.replay(n, moves);
+			} catch (ChessException e) {
+				result.invalid(e.getMessage()); // A mensagem do GameArchive já traz o numero da partida
+				continue;
+			}
+			String gameResult = archive.getResult(n);
+			try {
+				checkResult(chessMatch, gameResult);
+				result.valid(gameResult, archive.getPlies(n));
+			} catch (ChessException e) {
+				result.invalid("Game " + n + ": " + e.getMessage());
+			}
+		}
+		result.setNanos(System.nanoTime() - start);
+		return result;
+	}
+
+	// O resultado declarado precisa bater com a posição final quando ela encerra a partida sozinha: mate,
+	// afogamento ou material insuficiente. Regra dos 50 lances e repetição dependem de reclamação, e
+	// vitorias sem mate podem ser por abandono, então nesses casos qualquer resultado é aceito.
+	// A mesma checagem do PgnReplay e do ArchiveReplay, para as ferramentas concordarem sobre o mesmo arquivo.
+	public static void checkResult(ChessMatch chessMatch, String result) {
+		String expected = null;
+		if (chessMatch.getCheckMate()) {
+			expected = PgnWriter.result(chessMatch);
+		} else if (chessMatch.getDrawReason() == DrawReason.STALEMATE
+				|| chessMatch.getDrawReason() == DrawReason.INSUFFICIENT_MATERIAL) {
+			expected = "1/2-1/2";
+		}
+		if (expected != null && !expected.equals(result)) {
+			throw new ChessException("Result " + result + " does not match the final position (" + expected + ")");
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package chess.validation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+// Corta um fluxo PGN em blocos de texto com um numero fixo de partidas, sempre no limite entre partidas:
+// uma linha de tag depois de lances começa uma partida nova. Só separa linhas, sem interpretar os lances,
+// para que a leitura sequencial não segure as threads que fazem o trabalho pesado.
+final class PgnChunker {
+
+	private final BufferedReader in;
+	private String pending; // Primeira linha do proximo bloco, já lida
+	private long lineNumber; // Numero da ultima linha lida
+	private long games; // Partidas em todos os blocos já entregues
+	private long firstLine;
+	private long firstGame;
+
+	PgnChunker(Reader reader) {
+		in = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+	}
+
+	long getFirstLine() { // Do ultimo bloco devolvido por next()
+		return firstLine;
+	}
+
+	long getFirstGame() { // Do ultimo bloco devolvido por next()
+		return firstGame;
+	}
+
+	// Texto das proximas maxGames partidas (ou menos, no fim do fluxo), ou null se não houver mais nenhuma
+	String next(int maxGames) throws IOException {
+		String line = pending;
+		firstLine = (pending != null) ? lineNumber : lineNumber + 1;
+		firstGame = games;
+		pending = null;
+		if (line == null) {
+			line = readLine();
+		}
+		StringBuilder text = new StringBuilder(maxGames * 512);
+		int count = 0;
+		boolean inGame = false;
+		boolean inMoves = false;
+		while (line != null) {
+			boolean tag = isTag(line);
+			if (tag && (!inGame || inMoves)) { // Inicio de partida
+				if (count == maxGames) {
+					pending = line;
+					break;
+				}
+				count++;
+				inGame = true;
+				inMoves = false;
+			} else if (!tag && !line.isBlank()) {
+				if (!inGame) { // Partida sem tags
+					count++;
+					inGame = true;
+				}
+				inMoves = true;
+			}
+			text.append(line).append('\n');
+			line = readLine();
+		}
+		games += count;
+		return (count == 0) ? null : text.toString();
+	}
+
+	private String readLine() throws IOException {
+		String line = in.readLine();
+		if (line != null) {
+			lineNumber++;
+		}
+		return line;
+	}
+
+	private static boolean isTag(String line) {
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (!Character.isWhitespace(c)) {
+				return c == '[';
+			}
+		}
+		return false;
+	}
+}
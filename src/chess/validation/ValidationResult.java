@@ -0,0 +1,97 @@
+package chess.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Contagens da validação de um bloco de partidas, ou a soma de todos os blocos (ver GameValidator)
+public class ValidationResult {
+
+	private final long chunk;
+	private final long firstGame;
+	private long games;
+	private long plies;
+	private long invalid;
+	private long nanos;
+	private final Map<String, Long> results = new LinkedHashMap<>(); // Resultado PGN das partidas validas
+	private final List<String> errors = new ArrayList<>(); // Só nos blocos, a soma guarda apenas as contagens
+
+	ValidationResult(long chunk, long firstGame) {
+		this.chunk = chunk;
+		this.firstGame = firstGame;
+		for (String result : new String[] { "1-0", "0-1", "1/2-1/2", "*" }) {
+			results.put(result, 0L);
+		}
+	}
+
+	public long getChunk() {
+		return chunk;
+	}
+
+	public long getFirstGame() { // Numero (a partir de 0) da primeira partida do bloco
+		return firstGame;
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public long getPlies() {
+		return plies;
+	}
+
+	public long getInvalid() {
+		return invalid;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public Map<String, Long> getResults() {
+		return Collections.unmodifiableMap(results);
+	}
+
+	public List<String> getErrors() {
+		return Collections.unmodifiableList(errors);
+	}
+
+	public double gamesPerSecond() {
+		return games * 1e9 / Math.max(1, nanos);
+	}
+
+	public double pliesPerSecond() {
+		return plies * 1e9 / Math.max(1, nanos);
+	}
+
+	void valid(String result, int gamePlies) {
+		games++;
+		plies += gamePlies;
+		results.merge(result, 1L, Long::sum);
+	}
+
+	void invalid(String error) {
+		games++;
+		invalid++;
+		errors.add(error);
+	}
+
+	void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	void add(ValidationResult other) {
+		games += other.games;
+		plies += other.plies;
+		invalid += other.invalid;
+		other.results.forEach((result, count) -> results.merge(result, count, Long::sum));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%,d games (%,d invalid), %,d plies in %.2f s: %,.0f games/s, %,.0f plies/s %s", games,
+				invalid, plies, nanos / 1e9, gamesPerSecond(), pliesPerSecond(), results);
+	}
+}
@@ -0,0 +1,54 @@
+package chess.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+
+public class GameValidatorTest {
+
+	// Mate do louco seguido de um lance a mais: depois do mate a vez fica com o vencedor, que não pode jogar
+	private static final String MOVE_AFTER_MATE = "[Event \"?\"]\n[Result \"0-1\"]\n\n1. f3 e5 2. g4 Qh4# 3. ... a6 0-1\n";
+	private static final String FOOLS_MATE = "[Event \"?\"]\n[Result \"0-1\"]\n\n1. f3 e5 2. g4 Qh4# 0-1\n";
+
+	@Test
+	public void rejectsMovesAfterCheckmate() throws IOException {
+		GameValidator validator = new GameValidator(new ForkJoinPool(1), 10);
+		List<String> errors = new ArrayList<>(); // O total só soma: as mensagens vêm nos blocos
+		validator.setChunkListener(chunk -> errors.addAll(chunk.getErrors()));
+		ValidationResult result = validator.validate(new StringReader(MOVE_AFTER_MATE));
+		assertEquals(1, result.getGames());
+		assertEquals(1, result.getInvalid());
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).startsWith("Game 0 "), errors.get(0)); // Numeradas a partir de 0, como no GameArchive
+		assertTrue(errors.get(0).contains("The game is over"), errors.get(0));
+	}
+
+	@Test
+	public void replayRejectsMovesAfterCheckmate() throws IOException {
+		PgnGame game = new PgnReader(new StringReader(MOVE_AFTER_MATE)).next();
+		ChessException e = assertThrows(ChessException.class, game::replay);
+		assertTrue(e.getMessage().startsWith("Ply 5 (a6)"), e.getMessage());
+	}
+
+	@Test
+	public void acceptsTheGameEndingAtCheckmate() throws IOException {
+		ValidationResult result = new GameValidator(new ForkJoinPool(1), 10).validate(new StringReader(FOOLS_MATE));
+		assertEquals(1, result.getGames());
+		assertEquals(0, result.getInvalid());
+		ChessMatch chessMatch = new PgnReader(new StringReader(FOOLS_MATE)).next().replay();
+		assertTrue(chessMatch.getCheckMate());
+	}
+}